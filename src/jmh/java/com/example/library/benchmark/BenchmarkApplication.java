@@ -0,0 +1,72 @@
+package com.example.library.benchmark;
+
+import com.example.library.LibraryApplication;
+import com.example.library.service.BookImportService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against a private in-memory H2 database for benchmarking
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return start(WebApplicationType.NONE);
+    }
+
+    /**
+     * Same as {@link #start()} with additional {@code --name=value} property overrides
+     */
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return start(WebApplicationType.NONE, extraArgs);
+    }
+
+    /**
+     * Same as {@link #start()} but with the embedded web server listening on a random port
+     */
+    public static ConfigurableApplicationContext startWeb() {
+        return start(WebApplicationType.SERVLET, "--server.port=0");
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webType, String... extraArgs) {
+        String db = "bench-" + UUID.randomUUID();
+        String[] args = {
+                        "--spring.datasource.url=jdbc:h2:mem:" + db + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"};
+        return new SpringApplicationBuilder(LibraryApplication.class)
+                .web(webType)
+                // Command-line arguments so they override application.properties
+                .run(Stream.concat(Arrays.stream(args), Arrays.stream(extraArgs)).toArray(String[]::new));
+    }
+
+    /**
+     * Seed {@code count} titles across 20 categories through the bulk importer
+     */
+    public static void seedBooks(ConfigurableApplicationContext context, int count, int copies) {
+        StringBuilder csv = new StringBuilder("title,author,category,isbn,totalCopies\n");
+        for (int i = 0; i < count; i++) {
+            csv.append("Title ").append(i).append(",Author ").append(i % 997)
+                    .append(",Category").append(i % 20).append(",ISBN-").append(i).append(',').append(copies).append('\n');
+        }
+        context.getBean(BookImportService.class).importCatalog(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.CursorPage;
+import com.example.library.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookService.list (offset) and listByCursor (keyset) at varying catalog sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookListBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private int pages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedBooks(context, catalogSize, 3);
+        bookService = context.getBean(BookService.class);
+        pages = catalogSize / 20;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookResponse> firstPage() {
+        return bookService.list(null, null, 0, 20, "title");
+    }
+
+    @Benchmark
+    public Page<BookResponse> randomPageByCategory() {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, pages / 20));
+        return bookService.list("Category7", true, page, 20, "title");
+    }
+
+    @Benchmark
+    public Page<BookResponse> deepPage() {
+        return bookService.list(null, null, pages - 1, 20, "title");
+    }
+
+    @Benchmark
+    public CursorPage<BookResponse> firstCursorPage() {
+        return bookService.listByCursor(null, null, "", 20, "title");
+    }
+}
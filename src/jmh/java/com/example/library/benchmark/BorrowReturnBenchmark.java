@@ -0,0 +1,84 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.BorrowRecord;
+import com.example.library.entity.MembershipType;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowService;
+import com.example.library.service.BorrowerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A borrow followed by the matching return, so state is unchanged between invocations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BorrowReturnBenchmark {
+
+    private static final int BOOKS = 1000;
+    private static final int BORROWERS = 256;
+
+    private ConfigurableApplicationContext context;
+    private BorrowService borrowService;
+    private UUID[] bookIds;
+    private UUID[] borrowerIds;
+    private final AtomicInteger nextBorrower = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedBooks(context, BOOKS, 1_000);
+        borrowService = context.getBean(BorrowService.class);
+
+        List<BookResponse> books = context.getBean(BookService.class).list(null, null, 0, 100, "title").getContent();
+        bookIds = books.stream().map(BookResponse::getId).toArray(UUID[]::new);
+
+        BorrowerService borrowerService = context.getBean(BorrowerService.class);
+        borrowerIds = new UUID[BORROWERS];
+        for (int i = 0; i < BORROWERS; i++) {
+            BorrowerRequest req = new BorrowerRequest();
+            req.setName("Bench " + i);
+            req.setEmail("bench" + i + "@example.com");
+            req.setMembershipType(MembershipType.PREMIUM);
+            borrowerIds[i] = borrowerService.register(req).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Each thread takes the next borrower in turn, so up to BORROWERS threads never share one or hit its loan limit
+    @State(Scope.Thread)
+    public static class Patron {
+        int index;
+
+        @Setup(Level.Trial)
+        public void pick(BorrowReturnBenchmark bench) {
+            index = bench.nextBorrower.getAndIncrement() % BORROWERS;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public BorrowRecord borrowAndReturn(Patron patron) {
+        UUID borrowerId = borrowerIds[patron.index];
+        UUID bookId = bookIds[ThreadLocalRandom.current().nextInt(bookIds.length)];
+        BorrowRecordResponse borrowed = borrowService.borrowBook(borrowerId, bookId);
+        return borrowService.returnBook(borrowed.getBorrowerId(), borrowed.getBookId());
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.library.benchmark;
+
+import com.example.library.entity.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput and on-disk size of a borrow_records-shaped table keyed by random (v4) versus
+ * time-ordered (v7) UUIDs stored as binary(16).
+ * <pre>
+ * mvn -P benchmarks compile exec:exec@id-benchmark
+ * mvn -P benchmarks compile exec:exec@id-benchmark -Did.args="--rows=1000000"
+ * mvn -P benchmarks compile exec:exec@id-benchmark -Did.args="--url=jdbc:mysql://localhost:3306/benchdb --user=root --password=1234"
+ * </pre>
+ * Without --url each scheme gets its own H2 file database under target/id-benchmark and the size is the file size;
+ * against MySQL the size is data_length + index_length of the InnoDB table after ANALYZE TABLE.
+ */
+public final class IdLocalityBenchmark {
+
+    private static final Map<String, Supplier<UUID>> SCHEMES = new LinkedHashMap<>();
+
+    static {
+        SCHEMES.put("random", UUID::randomUUID);
+        SCHEMES.put("time-ordered", UuidV7::generate);
+    }
+
+    private IdLocalityBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("rows", "10000000");
+        options.put("batch", "1000");
+        options.put("url", "");
+        options.put("user", "sa");
+        options.put("password", "");
+        options.put("out", "target/id-benchmark.json");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        long rows = Long.parseLong(options.get("rows"));
+        int batch = Integer.parseInt(options.get("batch"));
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map.Entry<String, Supplier<UUID>> scheme : SCHEMES.entrySet()) {
+            results.add(run(scheme.getKey(), scheme.getValue(), rows, batch, options));
+        }
+
+        System.out.printf("%n%-13s %12s %12s %14s %14s%n", "scheme", "rows", "rows/s", "last 10% r/s", "size MB");
+        for (Map<String, Object> r : results) {
+            System.out.printf("%-13s %12d %12.0f %14.0f %14.1f%n", r.get("scheme"), r.get("rows"),
+                    r.get("rowsPerSecond"), r.get("lastDecileRowsPerSecond"), (long) r.get("sizeBytes") / 1048576.0);
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("options", options);
+        document.put("results", results);
+        Path out = Path.of(options.get("out"));
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), document);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    private static Map<String, Object> run(String scheme, Supplier<UUID> ids, long rows, int batch,
+                                           Map<String, String> options) throws Exception {
+        boolean h2 = options.get("url").isEmpty();
+        Path h2File = Path.of("target", "id-benchmark", scheme.replace('-', '_'));
+        if (h2) {
+            Files.createDirectories(h2File.getParent());
+            Files.deleteIfExists(Path.of(h2File + ".mv.db"));
+        }
+        String url = h2 ? "jdbc:h2:file:" + h2File.toAbsolutePath() + ";MODE=MySQL" : options.get("url");
+        String table = "bench_borrow_records_" + scheme.replace('-', '_');
+
+        // Foreign key values are drawn from fixed pools so only the primary key differs between schemes
+        byte[][] books = pool(10_000);
+        byte[][] borrowers = pool(100_000);
+        List<Double> decileRates = new ArrayList<>();
+
+        System.out.printf("%s: inserting %d rows%n", scheme, rows);
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, options.get("user"), options.get("password"))) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("drop table if exists " + table);
+                ddl.execute("create table " + table + " (id binary(16) not null primary key, book_id binary(16),"
+                        + " borrower_id binary(16), borrow_date date, due_date date, return_date date, fine_amount double)");
+                ddl.execute("create index idx_" + table + "_borrower on " + table + " (borrower_id, borrow_date, id)");
+            }
+            connection.setAutoCommit(false);
+
+            long decile = Math.max(1, rows / 10);
+            long decileStart = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try (PreparedStatement insert = connection.prepareStatement("insert into " + table
+                    + " (id, book_id, borrower_id, borrow_date, due_date) values (?, ?, ?, ?, ?)")) {
+                for (long i = 1; i <= rows; i++) {
+                    LocalDate borrowed = today.minusDays(random.nextInt(365));
+                    insert.setBytes(1, bytes(ids.get()));
+                    insert.setBytes(2, books[random.nextInt(books.length)]);
+                    insert.setBytes(3, borrowers[random.nextInt(borrowers.length)]);
+                    insert.setDate(4, Date.valueOf(borrowed));
+                    insert.setDate(5, Date.valueOf(borrowed.plusDays(14)));
+                    insert.addBatch();
+                    if (i % batch == 0 || i == rows) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                    if (i % decile == 0) {
+                        long now = System.nanoTime();
+                        double rate = decile / ((now - decileStart) / 1e9);
+                        decileRates.add(rate);
+                        System.out.printf("  %,d rows, %.0f rows/s%n", i, rate);
+                        decileStart = now;
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scheme", scheme);
+        result.put("rows", rows);
+        result.put("seconds", seconds);
+        result.put("rowsPerSecond", rows / seconds);
+        result.put("lastDecileRowsPerSecond", decileRates.isEmpty() ? 0.0 : decileRates.get(decileRates.size() - 1));
+        result.put("decileRowsPerSecond", decileRates);
+        result.put("sizeBytes", h2 ? Files.size(Path.of(h2File + ".mv.db")) : innodbSize(url, table, options));
+        return result;
+    }
+
+    private static long innodbSize(String url, String table, Map<String, String> options) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, options.get("user"), options.get("password"));
+             Statement statement = connection.createStatement()) {
+            statement.execute("analyze table " + table);
+            try (ResultSet rs = statement.executeQuery("select data_length + index_length from information_schema.tables"
+                    + " where table_schema = database() and table_name = '" + table + "'")) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    private static byte[][] pool(int size) {
+        byte[][] pool = new byte[size][];
+        for (int i = 0; i < size; i++) pool[i] = bytes(UUID.randomUUID());
+        return pool;
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.BorrowRecordRepository;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowService;
+import com.example.library.service.BorrowerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop HTTP load test against the full Spring MVC + JPA stack on an embedded H2 database.
+ * <p>
+ * Requests are scheduled at a fixed rate and latency is measured from the scheduled send time,
+ * so a slow server is not hidden by the generator backing off.
+ * <pre>
+ * mvn -P benchmarks compile exec:exec@load-test -Dload.args="--rate=200 --duration=60"
+ * </pre>
+ * Options: --books, --borrowers, --overdue, --rate (requests/s), --warmup and --duration (seconds),
+ * --mix (e.g. books:60,borrow:15,return:15,overdue:10), --out (JSON report path).
+ */
+public final class LoadTest {
+
+    private static final String[] ENDPOINTS = {"books", "borrow", "return", "overdue"};
+    private static final int BOOKS = 0;
+    private static final int BORROW = 1;
+    private static final int RETURN = 2;
+    private static final int OVERDUE = 3;
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final ExecutorService senders = Executors.newFixedThreadPool(64);
+    private final ConcurrentLinkedQueue<UUID[]> openLoans = new ConcurrentLinkedQueue<>();
+
+    private String baseUrl;
+    private UUID[] bookIds;
+    private UUID[] borrowerIds;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .executor(senders)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("books", "1000");
+        options.put("borrowers", "500");
+        options.put("overdue", "200");
+        options.put("rate", "100");
+        options.put("warmup", "10");
+        options.put("duration", "30");
+        options.put("mix", "books:60,borrow:15,return:15,overdue:10");
+        options.put("out", "target/load-report.json");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        ConfigurableApplicationContext context = BenchmarkApplication.startWeb();
+        try {
+            new LoadTest(options).run(context);
+        } finally {
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        seed(context);
+
+        int rate = Integer.parseInt(options.get("rate"));
+        double[] mix = parseMix(options.get("mix"));
+
+        System.out.printf("Warming up for %ss at %d req/s%n", options.get("warmup"), rate);
+        drive(rate, Integer.parseInt(options.get("warmup")), mix, new Recorder[ENDPOINTS.length]);
+
+        Recorder[] recorders = new Recorder[ENDPOINTS.length];
+        for (int i = 0; i < ENDPOINTS.length; i++) recorders[i] = new Recorder(ENDPOINTS[i]);
+        int duration = Integer.parseInt(options.get("duration"));
+        System.out.printf("Measuring for %ds at %d req/s%n", duration, rate);
+        long elapsedNanos = drive(rate, duration, mix, recorders);
+
+        List<Map<String, Object>> report = new ArrayList<>();
+        System.out.printf("%n%-8s %8s %8s %8s %8s %9s %9s %9s %9s %10s%n",
+                "endpoint", "count", "ok", "rejected", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "req/s");
+        for (Recorder r : recorders) {
+            Map<String, Object> row = r.summary(elapsedNanos);
+            report.add(row);
+            System.out.printf("%-8s %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %10.1f%n",
+                    row.get("endpoint"), row.get("count"), row.get("ok"), row.get("rejected"), row.get("errors"),
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"), row.get("throughput"));
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("options", options);
+        document.put("endpoints", report);
+        Path out = Path.of(options.get("out"));
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), document);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    // N books with plenty of copies, M premium borrowers, and some loans already past due
+    private void seed(ConfigurableApplicationContext context) {
+        int books = Integer.parseInt(options.get("books"));
+        int borrowers = Integer.parseInt(options.get("borrowers"));
+        int overdue = Integer.parseInt(options.get("overdue"));
+        System.out.printf("Seeding %d books, %d borrowers, %d overdue loans%n", books, borrowers, overdue);
+
+        BenchmarkApplication.seedBooks(context, books, 1_000);
+        BookService bookService = context.getBean(BookService.class);
+        List<UUID> ids = new ArrayList<>(books);
+        for (int page = 0; ids.size() < books; page++) {
+            List<BookResponse> content = bookService.list(null, null, page, 100, "title").getContent();
+            if (content.isEmpty()) break;
+            content.forEach(b -> ids.add(b.getId()));
+        }
+        bookIds = ids.toArray(UUID[]::new);
+
+        BorrowerService borrowerService = context.getBean(BorrowerService.class);
+        borrowerIds = new UUID[borrowers];
+        for (int i = 0; i < borrowers; i++) {
+            BorrowerRequest req = new BorrowerRequest();
+            req.setName("Load " + i);
+            req.setEmail("load" + i + "@example.com");
+            req.setMembershipType(MembershipType.PREMIUM);
+            borrowerIds[i] = borrowerService.register(req).getId();
+        }
+
+        BorrowService borrowService = context.getBean(BorrowService.class);
+        BorrowRecordRepository records = context.getBean(BorrowRecordRepository.class);
+        for (int i = 0; i < overdue; i++) {
+            BorrowRecordResponse loan = borrowService.borrowBook(borrowerIds[i % borrowers], bookIds[i % bookIds.length]);
+            records.findById(loan.getId()).ifPresent(r -> {
+                r.setBorrowDate(LocalDate.now().minusDays(30));
+                r.setDueDate(LocalDate.now().minusDays(16));
+                records.save(r);
+            });
+        }
+    }
+
+    // Fire requests on a fixed schedule for the given number of seconds; returns the elapsed time
+    private long drive(int rate, int seconds, double[] mix, Recorder[] recorders) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+            int endpoint = pick(mix);
+            UUID[] loan = null;
+            if (endpoint == RETURN) {
+                loan = openLoans.poll();
+                // Nothing to return yet: borrow instead so the mix keeps loans flowing
+                if (loan == null) endpoint = BORROW;
+            }
+            inFlight.add(send(endpoint, loan, scheduled, recorders[endpoint]));
+            if (inFlight.size() >= 10_000) {
+                CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                inFlight.clear();
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        return System.nanoTime() - start;
+    }
+
+    private CompletableFuture<?> send(int endpoint, UUID[] openLoan, long scheduled, Recorder recorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID[] loan = openLoan;
+        HttpRequest request = switch (endpoint) {
+            case BOOKS -> get("/api/v1/books?page=" + random.nextInt(Math.max(1, bookIds.length / 20)) + "&size=20");
+            case OVERDUE -> get("/borrowers/overdue?cursor=&size=50");
+            case RETURN -> post("/borrow/return", loan[0], loan[1]);
+            default -> {
+                loan = new UUID[]{borrowerIds[random.nextInt(borrowerIds.length)], bookIds[random.nextInt(bookIds.length)]};
+                yield post("/borrow", loan[0], loan[1]);
+            }
+        };
+
+        UUID[] target = loan;
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    Outcome outcome;
+                    if (error != null || response.statusCode() >= 400) {
+                        outcome = Outcome.ERROR;
+                    } else if (response.body().startsWith("{\"success\":false")) {
+                        outcome = Outcome.REJECTED;
+                    } else {
+                        outcome = Outcome.OK;
+                    }
+                    if (recorder != null) recorder.record(System.nanoTime() - scheduled, outcome);
+                    if (endpoint == BORROW && outcome == Outcome.OK) openLoans.add(target);
+                    // A failed return leaves the loan open; keep it for a later attempt
+                    if (endpoint == RETURN && outcome == Outcome.ERROR) openLoans.add(target);
+                    return null;
+                });
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, UUID borrowerId, UUID bookId) {
+        String body = "{\"borrowerId\":\"" + borrowerId + "\",\"bookId\":\"" + bookId + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int pick(double[] cumulative) {
+        double r = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+
+    // Cumulative probabilities in ENDPOINTS order
+    private static double[] parseMix(String mix) {
+        double[] weights = new double[ENDPOINTS.length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            int index = Arrays.asList(ENDPOINTS).indexOf(kv[0].trim());
+            if (index < 0 || kv.length != 2) throw new IllegalArgumentException("Invalid mix entry: " + part);
+            weights[index] = Double.parseDouble(kv[1].trim());
+        }
+        double sum = Arrays.stream(weights).sum();
+        if (sum <= 0) throw new IllegalArgumentException("Mix weights must add up to more than zero");
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i] / sum;
+            weights[i] = running;
+        }
+        return weights;
+    }
+
+    private enum Outcome { OK, REJECTED, ERROR }
+
+    private static final class Recorder {
+        private final String endpoint;
+        private long[] latencies = new long[1024];
+        private int count;
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Recorder(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void record(long latencyNanos, Outcome outcome) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+            switch (outcome) {
+                case OK -> ok.incrementAndGet();
+                case REJECTED -> rejected.incrementAndGet();
+                default -> errors.incrementAndGet();
+            }
+        }
+
+        synchronized Map<String, Object> summary(long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("count", count);
+            row.put("ok", ok.get());
+            row.put("rejected", rejected.get());
+            row.put("errors", errors.get());
+            row.put("errorRate", count == 0 ? 0.0 : (double) errors.get() / count);
+            row.put("p50Ms", percentile(sorted, 0.50));
+            row.put("p95Ms", percentile(sorted, 0.95));
+            row.put("p99Ms", percentile(sorted, 0.99));
+            row.put("maxMs", count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+            row.put("throughput", count / (elapsedNanos / 1e9));
+            return row;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0.0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
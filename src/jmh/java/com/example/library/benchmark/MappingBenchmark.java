@@ -0,0 +1,102 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.entity.Book;
+import com.example.library.entity.BorrowRecord;
+import com.example.library.entity.Borrower;
+import com.example.library.entity.FinePolicy;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.FinePolicyRepository;
+import com.example.library.service.BenchmarkAccess;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowService;
+import com.example.library.service.FinePolicyService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU-only hot paths: entity to DTO mapping and fine calculation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BorrowService borrowService;
+    private FinePolicyService finePolicyService;
+    private Book book;
+    private BorrowRecord record;
+    private LocalDate lateReturn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        bookService = context.getBean(BookService.class);
+        borrowService = context.getBean(BorrowService.class);
+
+        FinePolicyRepository policies = context.getBean(FinePolicyRepository.class);
+        for (int i = 0; i < 20; i++) {
+            policies.save(FinePolicy.builder().category("Category" + i).finePerDay(i + 1).build());
+        }
+        finePolicyService = context.getBean(FinePolicyService.class);
+        finePolicyService.reload();
+
+        book = Book.builder()
+                .id(UUID.randomUUID())
+                .title("Effective Java")
+                .author("Joshua Bloch")
+                .category("Category7")
+                .isbn("978-0134685991")
+                .isAvailable(true)
+                .totalCopies(5)
+                .availableCopies(3)
+                .build();
+        Borrower borrower = Borrower.builder()
+                .id(UUID.randomUUID())
+                .name("Bench")
+                .email("bench@example.com")
+                .membershipType(MembershipType.PREMIUM)
+                .maxBorrowLimit(5)
+                .build();
+        record = BorrowRecord.builder()
+                .id(UUID.randomUUID())
+                .book(book)
+                .borrower(borrower)
+                .borrowDate(LocalDate.now().minusDays(30))
+                .dueDate(LocalDate.now().minusDays(16))
+                .fineAmount(0.0)
+                .build();
+        lateReturn = LocalDate.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponse bookToDto() {
+        return BenchmarkAccess.toDto(bookService, book);
+    }
+
+    @Benchmark
+    public BorrowRecordResponse borrowRecordToDto() {
+        return borrowService.toDto(record);
+    }
+
+    // What a return computes: the cached category rate applied to the days past due
+    @Benchmark
+    public double calculateFine() {
+        return finePolicyService.fineFor(record.getBook().getCategory(), record.getDueDate(), lateReturn);
+    }
+}
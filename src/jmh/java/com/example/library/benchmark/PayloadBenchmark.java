@@ -0,0 +1,154 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost of a list response by page size, wire format and page envelope. The mappers come from
+ * the same {@link Jackson2ObjectMapperBuilder} defaults Spring MVC uses for its JSON, CBOR and Smile converters.
+ * <pre>
+ * mvn -P benchmarks compile exec:exec -Djmh.args="-prof gc Payload"
+ * mvn -P benchmarks compile exec:exec@payload-sizes
+ * </pre>
+ * The main method prints the encoded size of each combination, raw and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    private static final String[] CATEGORIES = {"Fiction", "Science", "History", "Biography", "Children", "Technology"};
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"page", "lean"})
+    public String envelope;
+
+    private ObjectMapper mapper;
+    private Object books;
+    private Object records;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = mapper(format);
+        books = envelope(bookPage(pageSize), envelope);
+        records = envelope(recordPage(pageSize), envelope);
+    }
+
+    @Benchmark
+    public byte[] books() throws IOException {
+        return mapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] borrowRecords() throws IOException {
+        return mapper.writeValueAsBytes(records);
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%n%-15s %6s %-6s %-6s %12s %12s %10s%n",
+                "payload", "size", "format", "shape", "bytes", "gzip bytes", "vs json");
+        for (String payload : new String[]{"books", "borrowRecords"}) {
+            for (int size : new int[]{10, 100, 1000}) {
+                Page<?> page = payload.equals("books") ? bookPage(size) : recordPage(size);
+                for (String shape : new String[]{"page", "lean"}) {
+                    long json = 0;
+                    for (String format : new String[]{"json", "cbor", "smile"}) {
+                        byte[] bytes = mapper(format).writeValueAsBytes(envelope(page, shape));
+                        if (format.equals("json")) json = bytes.length;
+                        System.out.printf("%-15s %6d %-6s %-6s %12d %12d %9.0f%%%n", payload, size, format, shape,
+                                bytes.length, gzip(bytes).length, 100.0 * bytes.length / json);
+                    }
+                }
+            }
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    // "page" is the PageImpl the list endpoint used to return, "lean" the PageResponse it returns now
+    private static Object envelope(Page<?> page, String shape) {
+        Object data = shape.equals("lean") ? PageResponse.of(page) : page;
+        return ApiResponse.builder().success(true).message("Books fetched successfully").data(data).build();
+    }
+
+    private static Page<BookResponse> bookPage(int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<BookResponse> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int total = random.nextInt(1, 10);
+            int available = random.nextInt(0, total + 1);
+            content.add(BookResponse.builder()
+                    .id(UUID.randomUUID())
+                    .title("Book Title " + random.nextInt(1_000_000))
+                    .author("Author " + random.nextInt(10_000))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .available(available > 0)
+                    .totalCopies(total)
+                    .availableCopies(available)
+                    .build());
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size, Sort.by("title")), size * 50L);
+    }
+
+    private static Page<BorrowRecordResponse> recordPage(int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        List<BorrowRecordResponse> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDate borrowed = today.minusDays(random.nextInt(1, 60));
+            content.add(BorrowRecordResponse.builder()
+                    .id(UUID.randomUUID())
+                    .bookId(UUID.randomUUID())
+                    .bookTitle("Book Title " + random.nextInt(1_000_000))
+                    .borrowerId(UUID.randomUUID())
+                    .borrowerName("Borrower " + random.nextInt(100_000))
+                    .borrowDate(borrowed)
+                    .dueDate(borrowed.plusDays(14))
+                    .fineAmount(random.nextBoolean() ? 0.0 : random.nextInt(1, 50))
+                    .build());
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size, Sort.by("dueDate")), size * 50L);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.MonthEndReport;
+import com.example.library.entity.UuidV7;
+import com.example.library.service.ReportService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Month-end report aggregation time against the fork-join parallelism, on a synthetic year of borrow records.
+ * <pre>
+ * mvn -P benchmarks compile exec:exec@report-benchmark
+ * mvn -P benchmarks compile exec:exec@report-benchmark -Dreport.args="--records=1000000 --runs=5"
+ * </pre>
+ * Prints the best of --runs for each parallelism level from 1 up to the number of cores and the speedup over 1.
+ */
+public final class ReportScalingBenchmark {
+
+    private static final int BOOKS = 1_000;
+    private static final int BORROWERS = 10_000;
+    private static final int BATCH = 10_000;
+
+    private ReportScalingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("records", "10000000");
+        options.put("runs", "3");
+        options.put("max-parallelism", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int maxParallelism = Integer.parseInt(options.get("max-parallelism"));
+
+        // Every worker holds a connection while it scans, so the pool must not be the bottleneck
+        ConfigurableApplicationContext context = BenchmarkApplication.start(
+                "--spring.datasource.hikari.maximum-pool-size=" + (maxParallelism + 2));
+        try {
+            LocalDate from = LocalDate.now().minusYears(1).withDayOfMonth(1);
+            LocalDate to = from.plusYears(1);
+            seed(context.getBean(JdbcTemplate.class), Long.parseLong(options.get("records")), from);
+
+            ReportService reports = context.getBean(ReportService.class);
+            int runs = Integer.parseInt(options.get("runs"));
+            reports.aggregate(from, to, maxParallelism); // warm-up
+
+            System.out.printf("%n%-12s %10s %10s %12s%n", "parallelism", "best ms", "speedup", "records");
+            long baseline = 0;
+            for (int parallelism = 1; parallelism <= maxParallelism; parallelism = parallelism < maxParallelism
+                    ? Math.min(parallelism * 2, maxParallelism) : parallelism + 1) {
+                long best = Long.MAX_VALUE;
+                long records = 0;
+                for (int i = 0; i < runs; i++) {
+                    MonthEndReport report = reports.aggregate(from, to, parallelism);
+                    best = Math.min(best, report.getDurationMs());
+                    records = report.getRecordsScanned();
+                }
+                if (parallelism == 1) baseline = best;
+                System.out.printf("%-12d %10d %10.2f %12d%n", parallelism, best, (double) baseline / best, records);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // Plain JDBC batches: the synthetic data only has to exist, not go through the services
+    private static void seed(JdbcTemplate jdbc, long records, LocalDate from) {
+        System.out.printf("Seeding %,d borrow records%n", records);
+        byte[][] books = new byte[BOOKS][];
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books[i] = bytes(UuidV7.generate());
+            rows.add(new Object[]{books[i], "Title " + i, "Author " + i, "Category" + (i % 20), "ISBN-" + i});
+        }
+        jdbc.batchUpdate("insert into books (id, title, author, category, isbn, total_copies, available_copies,"
+                + " is_available, deleted, version) values (?, ?, ?, ?, ?, 1000, 1000, true, false, 0)", rows);
+
+        byte[][] borrowers = new byte[BORROWERS][];
+        rows.clear();
+        for (int i = 0; i < BORROWERS; i++) {
+            borrowers[i] = bytes(UuidV7.generate());
+            rows.add(new Object[]{borrowers[i], "Borrower " + i, "borrower" + i + "@example.com", i % 3 == 0 ? "PREMIUM" : "BASIC"});
+        }
+        jdbc.batchUpdate("insert into borrowers (id, name, email, membership_type, max_borrow_limit, active_loans,"
+                + " outstanding_fines, history_version) values (?, ?, ?, ?, 5, 0, 0, 0)", rows);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        rows.clear();
+        for (long i = 0; i < records; i++) {
+            LocalDate borrowed = from.plusDays(random.nextInt(365));
+            LocalDate due = borrowed.plusDays(14);
+            // Most loans come back on time, some late, and a few are still out
+            int outcome = random.nextInt(100);
+            LocalDate returned = outcome < 80 ? borrowed.plusDays(random.nextInt(15))
+                    : outcome < 95 ? due.plusDays(1 + random.nextInt(30)) : null;
+            if (returned != null && returned.isAfter(today)) returned = null;
+            double fine = returned != null && returned.isAfter(due) ? (returned.toEpochDay() - due.toEpochDay()) * 10.0 : 0.0;
+            rows.add(new Object[]{bytes(UuidV7.generate()), books[random.nextInt(BOOKS)], borrowers[random.nextInt(BORROWERS)],
+                    Date.valueOf(borrowed), Date.valueOf(due), returned != null ? Date.valueOf(returned) : null, fine});
+            if (rows.size() == BATCH) {
+                insertRecords(jdbc, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) insertRecords(jdbc, rows);
+    }
+
+    private static void insertRecords(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("insert into borrow_records (id, book_id, borrower_id, borrow_date, due_date, return_date,"
+                + " fine_amount) values (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
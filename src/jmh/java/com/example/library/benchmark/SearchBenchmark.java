@@ -0,0 +1,107 @@
+package com.example.library.benchmark;
+
+import com.example.library.entity.Book;
+import com.example.library.service.BookSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookSearchIndex.search latency (p99 in the sample-time output) over a synthetic catalog.
+ * Title words follow a skewed distribution, so the first vocabulary word is in a large share of all titles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    private BookSearchIndex index;
+    private String[] words;
+    private String rareTitle;
+    private String isbn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) words[i] = word(random, 3 + random.nextInt(7));
+        String[] authors = new String[20_000];
+        for (int i = 0; i < authors.length; i++) authors[i] = capitalize(word(random, 5)) + " " + capitalize(word(random, 7));
+
+        // Indexed outside a transaction, so every book is applied immediately
+        index = new BookSearchIndex(null);
+        for (int i = 0; i < catalogSize; i++) {
+            StringBuilder title = new StringBuilder();
+            int length = 2 + random.nextInt(4);
+            for (int w = 0; w < length; w++) {
+                // Cubing a uniform value skews picks towards the start of the vocabulary
+                double skew = Math.pow(random.nextDouble(), 3);
+                title.append(w == 0 ? "" : " ").append(words[(int) (skew * VOCABULARY)]);
+            }
+            String bookIsbn = String.format("978-%010d", i);
+            index.indexAfterCommit(Book.builder()
+                    .id(UUID.randomUUID())
+                    .title(title.toString())
+                    .author(authors[random.nextInt(authors.length)])
+                    .category("Category" + (i % 50))
+                    .isbn(bookIsbn)
+                    .build());
+            if (i == catalogSize / 2) {
+                rareTitle = title.toString();
+                isbn = bookIsbn;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<UUID> commonTerm() {
+        return index.search(words[0], LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> twoCommonTerms() {
+        return index.search(words[0] + " " + words[1], LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> commonAndRareTerm() {
+        return index.search(words[0] + " " + words[VOCABULARY - 1], LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> fullTitle() {
+        return index.search(rareTitle, LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> twoLetterPrefix() {
+        return index.search(words[0] + " " + words[2].substring(0, 2), LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> isbn() {
+        return index.search(isbn, LIMIT);
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) word.append((char) ('a' + random.nextInt(26)));
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
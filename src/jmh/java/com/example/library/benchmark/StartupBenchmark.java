@@ -0,0 +1,281 @@
+package com.example.library.benchmark;
+
+import com.example.library.LibraryApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time to first request and time to steady-state latency of a freshly started application: default configuration,
+ * the fast-startup profile with its warm-up turned off, and the full fast-startup profile. The warm-up's own
+ * duration is read from the application log, so its cost is reported apart from the rest of the profile.
+ * Every run is a new JVM on the same H2 file database.
+ * <pre>
+ * mvn -P benchmarks compile exec:exec@startup-benchmark
+ * mvn -P benchmarks compile exec:exec@startup-benchmark -Dstartup.args="--runs=5 --requests=4000 --jvm=-XX:TieredStopAtLevel=1"
+ * </pre>
+ * The client polls /actuator/health/readiness from launch, as a load balancer would, then sends borrow/return
+ * requests one at a time. Steady state is reached at the first window of 50 requests whose median is within
+ * 20% of the median of the last quarter of the run.
+ */
+public final class StartupBenchmark {
+
+    private static final String[] MODES = {"default", "fast-startup-no-warmup", "fast-startup"};
+    private static final Pattern WARMUP_FINISHED = Pattern.compile("Warm-up finished in (\\d+) ms");
+    private static final int WINDOW = 50;
+    private static final double STEADY_TOLERANCE = 1.2;
+
+    private final Map<String, String> options;
+    private final Path dir;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+        this.dir = Path.of(options.get("dir")).toAbsolutePath();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("runs", "3");
+        options.put("requests", "2000");
+        options.put("books", "2000");
+        options.put("borrowers", "200");
+        options.put("jvm", "");
+        options.put("dir", "target/startup-benchmark");
+        options.put("out", "target/startup-benchmark.json");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(dir);
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("db.")) Files.delete(file);
+            }
+        }
+        Fixture fixture = prepare();
+
+        int runs = Integer.parseInt(options.get("runs"));
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            for (String mode : MODES) {
+                Map<String, Object> result = measure(mode, run, fixture);
+                results.add(result);
+                System.out.printf("%s run %d: ready in %d ms, steady after %d requests%n",
+                        mode, run, result.get("readyMs"), result.get("requestsToSteadyState"));
+            }
+        }
+
+        System.out.printf("%n%-22s %4s %10s %10s %14s %12s %14s %12s %12s%n", "mode", "run", "ready ms",
+                "warm-up ms", "first req ms", "first lat ms", "steady at ms", "steady reqs", "steady p50");
+        for (Map<String, Object> r : results) {
+            System.out.printf("%-22s %4d %10d %10s %14d %12.1f %14d %12d %12.2f%n", r.get("mode"), r.get("run"),
+                    r.get("readyMs"), r.get("warmupMs") != null ? r.get("warmupMs") : "-", r.get("firstRequestMs"),
+                    r.get("firstLatencyMs"), r.get("steadyStateMs"), r.get("requestsToSteadyState"),
+                    r.get("steadyMedianMs"));
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("options", options);
+        document.put("results", results);
+        Path out = Path.of(options.get("out"));
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        mapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), document);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    // Creates the schema and the catalog once, so every measured start finds the same database
+    private Fixture prepare() throws Exception {
+        int books = Integer.parseInt(options.get("books"));
+        int borrowers = Integer.parseInt(options.get("borrowers"));
+        Instance app = launch("prepare", "--spring.jpa.hibernate.ddl-auto=create");
+        try {
+            app.awaitReady();
+            UUID[] bookIds = new UUID[books];
+            for (int i = 0; i < books; i++) {
+                bookIds[i] = app.postForId("/api/v1/books", "{\"title\":\"Title " + i + "\",\"author\":\"Author "
+                        + (i % 97) + "\",\"category\":\"Category" + (i % 20) + "\",\"totalCopies\":1000}");
+            }
+            UUID[] borrowerIds = new UUID[borrowers];
+            for (int i = 0; i < borrowers; i++) {
+                borrowerIds[i] = app.postForId("/borrowers", "{\"name\":\"Borrower " + i + "\",\"email\":\"startup-"
+                        + i + "@example.com\",\"membershipType\":\"PREMIUM\"}");
+            }
+            // Loan history over the first tenth of the catalog gives the warm-up its hot titles
+            for (int i = 0; i < borrowers * 5; i++) {
+                String loan = loan(borrowerIds[i % borrowers], bookIds[i % Math.max(1, books / 10)]);
+                app.post("/borrow", loan);
+                app.post("/borrow/return", loan);
+            }
+            System.out.printf("Seeded %d books and %d borrowers%n", books, borrowers);
+            return new Fixture(bookIds, borrowerIds);
+        } finally {
+            app.stop();
+        }
+    }
+
+    private Map<String, Object> measure(String mode, int run, Fixture fixture) throws Exception {
+        Instance app = switch (mode) {
+            case "default" -> launch(mode + "-" + run, "--spring.jpa.hibernate.ddl-auto=update");
+            case "fast-startup-no-warmup" -> launch(mode + "-" + run, "--spring.profiles.active=fast-startup",
+                    "--library.warmup.enabled=false");
+            default -> launch(mode + "-" + run, "--spring.profiles.active=fast-startup");
+        };
+        try {
+            long readyNanos = app.awaitReady();
+            // The warm-up runner logs its duration before readiness turns UP
+            Matcher warmup = WARMUP_FINISHED.matcher(Files.readString(app.log));
+            Long warmupMs = warmup.find() ? Long.valueOf(warmup.group(1)) : null;
+            int requests = Integer.parseInt(options.get("requests"));
+            double[] latencies = new double[requests];
+            long[] sentAt = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                String loan = loan(fixture.borrowerIds[(i / 2) % fixture.borrowerIds.length],
+                        fixture.bookIds[(i / 2) % fixture.bookIds.length]);
+                sentAt[i] = System.nanoTime();
+                app.post(i % 2 == 0 ? "/borrow" : "/borrow/return", loan);
+                latencies[i] = (System.nanoTime() - sentAt[i]) / 1e6;
+            }
+
+            double[] tail = Arrays.copyOfRange(latencies, requests * 3 / 4, requests);
+            double steadyMedian = median(tail);
+            int steadyAt = requests - 1;
+            for (int i = 0; i + WINDOW <= requests; i++) {
+                if (median(Arrays.copyOfRange(latencies, i, i + WINDOW)) <= steadyMedian * STEADY_TOLERANCE) {
+                    steadyAt = i;
+                    break;
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("mode", mode);
+            result.put("run", run);
+            result.put("readyMs", (readyNanos - app.launchedAt) / 1_000_000);
+            result.put("warmupMs", warmupMs);
+            result.put("firstRequestMs", (sentAt[0] - app.launchedAt) / 1_000_000 + Math.round(latencies[0]));
+            result.put("firstLatencyMs", latencies[0]);
+            result.put("first50MedianMs", median(Arrays.copyOfRange(latencies, 0, Math.min(WINDOW, requests))));
+            result.put("steadyStateMs", (sentAt[steadyAt] - app.launchedAt) / 1_000_000);
+            result.put("requestsToSteadyState", steadyAt);
+            result.put("steadyMedianMs", steadyMedian);
+            return result;
+        } finally {
+            app.stop();
+        }
+    }
+
+    private Instance launch(String name, String... modeArgs) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (!options.get("jvm").isBlank()) command.addAll(Arrays.asList(options.get("jvm").trim().split("\\s+")));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), LibraryApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("db") + ";MODE=MySQL",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--library.journal.dir=" + dir.resolve("journal"),
+                "--library.diagnostics.enabled=false"));
+        command.addAll(Arrays.asList(modeArgs));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve(name + ".log").toFile())
+                .start();
+        return new Instance(process, System.nanoTime(), "http://localhost:" + port, dir.resolve(name + ".log"));
+    }
+
+    private static String loan(UUID borrowerId, UUID bookId) {
+        return "{\"borrowerId\":\"" + borrowerId + "\",\"bookId\":\"" + bookId + "\"}";
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Fixture(UUID[] bookIds, UUID[] borrowerIds) {
+    }
+
+    private final class Instance {
+        final Process process;
+        final long launchedAt;
+        final String baseUrl;
+        final Path log;
+
+        Instance(Process process, long launchedAt, String baseUrl, Path log) {
+            this.process = process;
+            this.launchedAt = launchedAt;
+            this.baseUrl = baseUrl;
+            this.log = log;
+        }
+
+        long awaitReady() throws Exception {
+            HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness"))
+                    .timeout(Duration.ofSeconds(5)).build();
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) throw new IllegalStateException("Application exited; see " + log);
+                try {
+                    if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return System.nanoTime();
+                    }
+                } catch (IOException notListening) {
+                    // Not accepting connections yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application did not become ready within 5 minutes");
+        }
+
+        JsonNode post(String path, String body) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            JsonNode response = mapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            if (!response.path("success").asBoolean()) {
+                throw new IllegalStateException("POST " + path + " failed: " + response.path("message").asText());
+            }
+            return response;
+        }
+
+        UUID postForId(String path, String body) throws Exception {
+            return UUID.fromString(post(path, body).path("data").path("id").asText());
+        }
+
+        void stop() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(1, TimeUnit.MINUTES)) process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.entity.Book;
+
+/**
+ * Package-private service internals the benchmarks measure directly, without widening the production API
+ */
+public final class BenchmarkAccess {
+
+    private BenchmarkAccess() {
+    }
+
+    public static BookResponse toDto(BookService bookService, Book book) {
+        return bookService.toDto(book);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.library.config;
+
+import com.example.library.diagnostics.EntityLoadCounter;
+import com.example.library.diagnostics.JdbcTimingListener;
+import com.example.library.diagnostics.RequestDiagnosticsInterceptor;
+import com.example.library.diagnostics.SqlStatementInspector;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Per-request SQL statement, JDBC time and entity load tracking (see {@link RequestDiagnosticsInterceptor})
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DiagnosticsConfig implements WebMvcConfigurer {
+
+    private final RequestDiagnosticsInterceptor interceptor;
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatsHibernateHooks() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new EntityLoadCounter()));
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.library.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Set;
+
+/**
+ * Keeps scheduled jobs running under {@code spring.main.lazy-initialization=true}. Their methods are only
+ * registered when the bean is created, so a lazy fine accrual, hold expiry or journal relay would never run.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Set.of(Scheduled.class))) return false;
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Set<Scheduled>>) method -> {
+            Set<Scheduled> scheduled = AnnotatedElementUtils.getMergedRepeatableAnnotations(method, Scheduled.class);
+            return scheduled.isEmpty() ? null : scheduled;
+        }).isEmpty();
+    }
+}
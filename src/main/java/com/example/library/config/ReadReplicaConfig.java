@@ -0,0 +1,101 @@
+package com.example.library.config;
+
+import com.example.library.routing.ReadYourWritesGuard;
+import com.example.library.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split: {@code @Transactional(readOnly = true)} work runs on the replica pool, everything else on the
+ * primary (see {@link ReplicaRoutingDataSource} and {@link ReadYourWritesGuard}). Active only when
+ * {@code library.datasource.replica.url} is set; otherwise the single auto-configured pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.replica", name = "url")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    public ReadReplicaConfig(@Value("${library.datasource.replica.max-lag:2s}") Duration maxLag) {
+        this.readYourWritesGuard = new ReadYourWritesGuard(maxLag);
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryDataSourceProperties) {
+        return pool(primaryDataSourceProperties, "primary");
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties) {
+        return pool(replicaDataSourceProperties, "replica");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MeterRegistry registry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, registry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Registered as a bean so Boot adds it to the transaction manager's execution listeners
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard() {
+        return readYourWritesGuard;
+    }
+
+    // Hibernate otherwise keeps a session's first connection until the session closes, which under open-in-view
+    // is the whole request: a read-only transaction would pin the replica for a later write in the same request
+    @Bean
+    public HibernatePropertiesCustomizer perTransactionConnections() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesGuard);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name) {
+        // Bound hikari.* properties are applied after this and win over the default name
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        return pool;
+    }
+}
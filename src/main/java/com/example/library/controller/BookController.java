@@ -3,13 +3,22 @@ package com.example.library.controller;
 import com.example.library.dto.ApiResponse;
 import com.example.library.dto.BookRequest;
 import com.example.library.dto.BookResponse;
+import com.example.library.dto.ImportReport;
+import com.example.library.dto.PageResponse;
+import com.example.library.service.BookImportService;
 import com.example.library.service.BookService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,9 +26,11 @@ import java.util.UUID;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
     }
 
     // Create or update book
@@ -33,34 +44,73 @@ public class BookController {
                 .build());
     }
 
-    // Get all books with optional filters
-    @GetMapping
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> getAllBooks(
+    // Bulk import a CSV or NDJSON catalog streamed from the request body
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ImportReport>> importBooks(HttpServletRequest request) throws IOException {
+        ImportReport report = bookImportService.importCatalog(
+                request.getInputStream(), BookImportService.detectFormat(request.getContentType()));
+        return ResponseEntity.ok(ApiResponse.<ImportReport>builder()
+                .success(true)
+                .message("Books imported successfully")
+                .data(report)
+                .build());
+    }
+
+    // Get all books with optional filters; pass "cursor" (empty for the first page) for keyset paging
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<Object>> getAllBooks(
             @RequestParam(name = "category", required = false) String category,
             @RequestParam(name = "available", required = false) Boolean available,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
-            @RequestParam(name = "sortBy", defaultValue = "title") String sortBy) {
+            @RequestParam(name = "sortBy", defaultValue = "title") String sortBy,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
-        Page<BookResponse> books = bookService.list(category, available, page, size, sortBy);
-        return ResponseEntity.ok(ApiResponse.<Page<BookResponse>>builder()
+        Object books = cursor != null
+                ? bookService.listByCursor(category, available, cursor, size, sortBy)
+                : PageResponse.of(bookService.list(category, available, page, size, sortBy));
+        return ResponseEntity.ok(ApiResponse.builder()
                 .success(true)
                 .message("Books fetched successfully")
                 .data(books)
                 .build());
     }
 
-    // Get book by ID
-    @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<BookResponse>> getBookById(@PathVariable UUID id) {
-        BookResponse response = bookService.getById(id);
-        return ResponseEntity.ok(ApiResponse.<BookResponse>builder()
+    // Search books by title, author or ISBN
+    @GetMapping(path = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<List<BookResponse>>> searchBooks(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+
+        List<BookResponse> books = bookService.search(query, limit);
+        return ResponseEntity.ok(ApiResponse.<List<BookResponse>>builder()
                 .success(true)
-                .message("Book fetched successfully")
-                .data(response)
+                .message("Books fetched successfully")
+                .data(books)
                 .build());
     }
 
+    // Get book by ID; answers 304 when If-None-Match still matches the book's version
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<BookResponse>> getBookById(@PathVariable UUID id, WebRequest request,
+                                                                 HttpServletResponse servletResponse) {
+        BookResponse response = bookService.getById(id);
+        String etag = "W/\"" + response.getVersion() + "\"";
+        // Every representation (gzipped or not) shares the ETag, so caches must also key on Accept and Accept-Encoding
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.<BookResponse>builder()
+                        .success(true)
+                        .message("Book fetched successfully")
+                        .data(response)
+                        .build());
+    }
+
     // Update book
     @PutMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<BookResponse>> updateBook(
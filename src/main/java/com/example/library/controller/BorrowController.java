@@ -1,16 +1,25 @@
 package com.example.library.controller;
 
 import com.example.library.dto.ApiResponse;
+import com.example.library.dto.BatchBorrowRequest;
+import com.example.library.dto.BatchItemResponse;
 import com.example.library.dto.BorrowRequest;
 import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.CursorPage;
+import com.example.library.service.BorrowRecordExportService;
 import com.example.library.service.BorrowService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +28,7 @@ import java.util.UUID;
 public class BorrowController {
 
     private final BorrowService borrowService;
+    private final BorrowRecordExportService exportService;
 
     // Borrow a book
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -26,8 +36,7 @@ public class BorrowController {
         UUID borrowerId = req.getBorrowerId();
         UUID bookId = req.getBookId();
 
-        var record = borrowService.borrowBook(borrowerId, bookId);
-        BorrowRecordResponse response = borrowService.toDto(record);
+        BorrowRecordResponse response = borrowService.borrowBook(borrowerId, bookId);
 
         return ResponseEntity.ok(ApiResponse.<BorrowRecordResponse>builder()
                 .success(true)
@@ -52,14 +61,81 @@ public class BorrowController {
                 .build());
     }
 
-    // List all active borrow records
-    @GetMapping("/records/active")
-    public ResponseEntity<ApiResponse<List<BorrowRecordResponse>>> activeRecords() {
-        List<BorrowRecordResponse> records = borrowService.getActiveRecords();
-        return ResponseEntity.ok(ApiResponse.<List<BorrowRecordResponse>>builder()
+    // Borrow several books at once; each item reports its own outcome
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchItemResponse>>> borrowBatch(@Valid @RequestBody BatchBorrowRequest req) {
+        List<BatchItemResponse> results = borrowService.borrowBooks(req.getBorrowerId(), req.getBookIds());
+        return ResponseEntity.ok(ApiResponse.<List<BatchItemResponse>>builder()
+                .success(results.stream().anyMatch(BatchItemResponse::isSuccess))
+                .message(batchMessage("borrowed", results))
+                .data(results)
+                .build());
+    }
+
+    // Return several books at once; each item reports its own outcome
+    @PostMapping(path = "/return/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BatchItemResponse>>> returnBatch(@Valid @RequestBody BatchBorrowRequest req) {
+        List<BatchItemResponse> results = borrowService.returnBooks(req.getBorrowerId(), req.getBookIds());
+        return ResponseEntity.ok(ApiResponse.<List<BatchItemResponse>>builder()
+                .success(results.stream().anyMatch(BatchItemResponse::isSuccess))
+                .message(batchMessage("returned", results))
+                .data(results)
+                .build());
+    }
+
+    // Page through active borrow records, optionally within a due-date window [dueFrom, dueTo) and by category or borrower;
+    // pass the returned "nextCursor" as "cursor" for the following page
+    @GetMapping(path = "/records/active", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<CursorPage<BorrowRecordResponse>>> activeRecords(
+            @RequestParam(name = "dueFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(name = "dueTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "borrowerId", required = false) UUID borrowerId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        CursorPage<BorrowRecordResponse> records =
+                borrowService.getActiveRecordsPage(dueFrom, dueTo, category, borrowerId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.<CursorPage<BorrowRecordResponse>>builder()
                 .success(true)
                 .message("Active borrow records fetched successfully")
                 .data(records)
                 .build());
     }
+
+    // Stream borrow records as NDJSON or CSV without building the full list in memory
+    @GetMapping(path = "/records/export", produces = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportRecords(
+            @RequestParam(name = "scope", defaultValue = "active") String scopeParam,
+            @RequestParam(name = "borrowerId", required = false) UUID borrowerId,
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+
+        var scope = parseEnum(BorrowRecordExportService.Scope.class, scopeParam, "scope");
+        var format = parseEnum(BorrowRecordExportService.Format.class, formatParam, "format");
+        if (scope == BorrowRecordExportService.Scope.HISTORY && borrowerId == null) {
+            throw new IllegalArgumentException("Borrower ID must be provided for history export");
+        }
+
+        boolean csv = format == BorrowRecordExportService.Format.CSV;
+        String filename = "borrow-records-" + scope.name().toLowerCase(Locale.ROOT) + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out -> exportService.export(scope, borrowerId, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported " + name + ": " + value);
+        }
+    }
+
+    private String batchMessage(String action, List<BatchItemResponse> results) {
+        long succeeded = results.stream().filter(BatchItemResponse::isSuccess).count();
+        return succeeded + " of " + results.size() + " books " + action + " successfully";
+    }
 }
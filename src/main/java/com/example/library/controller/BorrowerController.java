@@ -1,17 +1,24 @@
 package com.example.library.controller;
 
 import com.example.library.dto.ApiResponse;
+import com.example.library.dto.BorrowRecordResponse;
 import com.example.library.dto.BorrowerRequest;
 import com.example.library.dto.BorrowerResponse;
+import com.example.library.dto.CursorPage;
 import com.example.library.service.BorrowService;
 import com.example.library.service.BorrowerService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -36,25 +43,64 @@ public class BorrowerController {
     }
 
     /**
-     * Get borrow history of a borrower
+     * Get borrower details
      */
-    @GetMapping("/{id}/records")
-    public ResponseEntity<ApiResponse<List<?>>> history(@PathVariable UUID id) {
-        List<?> records = borrowService.getBorrowHistory(id);
-        return ResponseEntity.ok(ApiResponse.<List<?>>builder()
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<BorrowerResponse>> getById(@PathVariable UUID id) {
+        BorrowerResponse response = borrowerService.getById(id);
+        return ResponseEntity.ok(ApiResponse.<BorrowerResponse>builder()
                 .success(true)
-                .message("Borrow history fetched successfully")
-                .data(records)
+                .message("Borrower fetched successfully")
+                .data(response)
                 .build());
     }
 
     /**
-     * Get all overdue borrow records
+     * Get borrow history of a borrower; pass "cursor" (empty for the first page) for keyset paging.
+     * Answers 304 from a single version lookup when If-None-Match still matches. The weak ETag versions the whole
+     * history, so every cursor/size variant of this URL carries the same one, as do its JSON, CBOR and Smile encodings;
+     * Vary tells caches to key on Accept and Accept-Encoding as well.
+     */
+    @GetMapping(path = "/{id}/records", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<Object>> history(
+            @PathVariable UUID id,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size,
+            WebRequest request,
+            HttpServletResponse servletResponse) {
+        String etag = "W/\"" + borrowService.getHistoryVersion(id) + "\"";
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (request.checkNotModified(etag)) return null;
+        Object records = cursor != null
+                ? borrowService.getBorrowHistoryPage(id, cursor, size)
+                : borrowService.getBorrowHistory(id);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.builder()
+                        .success(true)
+                        .message("Borrow history fetched successfully")
+                        .data(records)
+                        .build());
+    }
+
+    /**
+     * Page through overdue borrow records, most overdue first; optionally within a due-date window
+     * [dueFrom, dueTo) and by category or borrower. Pass the returned "nextCursor" as "cursor" for the next page.
      */
-    @GetMapping("/overdue")
-    public ResponseEntity<ApiResponse<List<?>>> overdueBorrowers() {
-        List<?> records = borrowService.getOverdueRecords();
-        return ResponseEntity.ok(ApiResponse.<List<?>>builder()
+    @GetMapping(path = "/overdue", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ApiResponse<CursorPage<BorrowRecordResponse>>> overdueBorrowers(
+            @RequestParam(name = "dueFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(name = "dueTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "borrowerId", required = false) UUID borrowerId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        CursorPage<BorrowRecordResponse> records =
+                borrowService.getOverdueRecordsPage(dueFrom, dueTo, category, borrowerId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.<CursorPage<BorrowRecordResponse>>builder()
                 .success(true)
                 .message("Overdue records fetched successfully")
                 .data(records)
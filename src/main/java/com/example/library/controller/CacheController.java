@@ -0,0 +1,44 @@
+package com.example.library.controller;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.service.LookupCache;
+import com.example.library.service.LookupCaches;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final LookupCaches caches;
+
+    /**
+     * Hit, miss and eviction counters of the lookup caches
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<List<LookupCache.Stats>>> stats() {
+        return ResponseEntity.ok(ApiResponse.<List<LookupCache.Stats>>builder()
+                .success(true)
+                .message("Cache statistics fetched successfully")
+                .data(caches.stats())
+                .build());
+    }
+
+    /**
+     * Drop every cached entry
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<String>> clear() {
+        caches.clear();
+        return ResponseEntity.ok(ApiResponse.<String>builder()
+                .success(true)
+                .message("Caches cleared successfully")
+                .data("Cleared")
+                .build());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.library.controller;
+
+import com.example.library.diagnostics.SlowRequestLog;
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.SlowRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/diagnostics", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final SlowRequestLog slowRequests;
+
+    /**
+     * Recent requests that went over the statement or latency budget, slowest first
+     */
+    @GetMapping("/slow-requests")
+    public ResponseEntity<ApiResponse<List<SlowRequest>>> slowRequests(
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.<List<SlowRequest>>builder()
+                .success(true)
+                .message("Slow requests fetched successfully")
+                .data(slowRequests.slowest(limit))
+                .build());
+    }
+
+    /**
+     * Forget every recorded slow request
+     */
+    @DeleteMapping("/slow-requests")
+    public ResponseEntity<ApiResponse<String>> clear() {
+        slowRequests.clear();
+        return ResponseEntity.ok(ApiResponse.<String>builder()
+                .success(true)
+                .message("Slow requests cleared successfully")
+                .data("Cleared")
+                .build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.library.controller;
+
+import com.example.library.dto.AccrualReport;
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.BorrowerFineResponse;
+import com.example.library.dto.CategoryFineResponse;
+import com.example.library.service.FineAccrualService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/fines", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class FineController {
+
+    private final FineAccrualService accrualService;
+
+    // Outstanding fines on a borrower's open loans
+    @GetMapping("/outstanding/borrowers/{id}")
+    public ResponseEntity<ApiResponse<BorrowerFineResponse>> borrowerFines(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.<BorrowerFineResponse>builder()
+                .success(true)
+                .message("Outstanding fines fetched successfully")
+                .data(accrualService.getBorrowerFines(id))
+                .build());
+    }
+
+    // Borrowers with the highest outstanding fines
+    @GetMapping("/outstanding/borrowers")
+    public ResponseEntity<ApiResponse<List<BorrowerFineResponse>>> topBorrowerFines(
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.<List<BorrowerFineResponse>>builder()
+                .success(true)
+                .message("Outstanding fines fetched successfully")
+                .data(accrualService.getTopBorrowerFines(limit))
+                .build());
+    }
+
+    // Outstanding fines per book category
+    @GetMapping("/outstanding/categories")
+    public ResponseEntity<ApiResponse<List<CategoryFineResponse>>> categoryFines() {
+        return ResponseEntity.ok(ApiResponse.<List<CategoryFineResponse>>builder()
+                .success(true)
+                .message("Outstanding fines fetched successfully")
+                .data(accrualService.getCategoryFines())
+                .build());
+    }
+
+    // Run fine accrual now instead of waiting for the schedule
+    @PostMapping("/accrual/run")
+    public ResponseEntity<ApiResponse<AccrualReport>> runAccrual() {
+        return ResponseEntity.ok(ApiResponse.<AccrualReport>builder()
+                .success(true)
+                .message("Fine accrual completed")
+                .data(accrualService.run())
+                .build());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.library.controller;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.FinePolicyRequest;
+import com.example.library.dto.FinePolicyResponse;
+import com.example.library.service.FinePolicyService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/fine-policies", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class FinePolicyController {
+
+    private final FinePolicyService finePolicyService;
+
+    // List all fine policies
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<FinePolicyResponse>>> list() {
+        List<FinePolicyResponse> policies = finePolicyService.list();
+        return ResponseEntity.ok(ApiResponse.<List<FinePolicyResponse>>builder()
+                .success(true)
+                .message("Fine policies fetched successfully")
+                .data(policies)
+                .build());
+    }
+
+    // Create a fine policy for a category
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<FinePolicyResponse>> create(@Valid @RequestBody FinePolicyRequest req) {
+        FinePolicyResponse response = finePolicyService.create(req);
+        return ResponseEntity.ok(ApiResponse.<FinePolicyResponse>builder()
+                .success(true)
+                .message("Fine policy created successfully")
+                .data(response)
+                .build());
+    }
+
+    // Update a fine policy
+    @PutMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<FinePolicyResponse>> update(
+            @PathVariable Long id,
+            @Valid @RequestBody FinePolicyRequest req) {
+
+        FinePolicyResponse response = finePolicyService.update(id, req);
+        return ResponseEntity.ok(ApiResponse.<FinePolicyResponse>builder()
+                .success(true)
+                .message("Fine policy updated successfully")
+                .data(response)
+                .build());
+    }
+
+    // Delete a fine policy
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<String>> delete(@PathVariable Long id) {
+        finePolicyService.delete(id);
+        return ResponseEntity.ok(ApiResponse.<String>builder()
+                .success(true)
+                .message("Fine policy deleted successfully")
+                .data("Deleted")
+                .build());
+    }
+
+    // Force a reload of the in-memory fine table
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Integer>> reload() {
+        int loaded = finePolicyService.reload().size();
+        return ResponseEntity.ok(ApiResponse.<Integer>builder()
+                .success(true)
+                .message("Fine policies reloaded successfully")
+                .data(loaded)
+                .build());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.library.controller;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.BorrowRequest;
+import com.example.library.dto.HoldResponse;
+import com.example.library.service.HoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/holds", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+
+    // Join the hold queue for a book with no copies on the shelf
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<HoldResponse>> placeHold(@Valid @RequestBody BorrowRequest req) {
+        return ResponseEntity.ok(ApiResponse.<HoldResponse>builder()
+                .success(true)
+                .message("Hold placed successfully")
+                .data(holdService.placeHold(req.getBorrowerId(), req.getBookId()))
+                .build());
+    }
+
+    // A borrower's holds, newest first; ready holds can be picked up with POST /borrow
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<HoldResponse>>> getHolds(@RequestParam("borrowerId") UUID borrowerId) {
+        return ResponseEntity.ok(ApiResponse.<List<HoldResponse>>builder()
+                .success(true)
+                .message("Holds fetched successfully")
+                .data(holdService.getHolds(borrowerId))
+                .build());
+    }
+
+    // Cancel a hold; a copy already set aside moves on to the next in line
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<HoldResponse>> cancelHold(@PathVariable UUID id,
+                                                                @RequestParam("borrowerId") UUID borrowerId) {
+        return ResponseEntity.ok(ApiResponse.<HoldResponse>builder()
+                .success(true)
+                .message("Hold cancelled successfully")
+                .data(holdService.cancelHold(borrowerId, id))
+                .build());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.library.controller;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.JournalPage;
+import com.example.library.journal.SegmentedJournal;
+import com.example.library.service.JournalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/journal", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class JournalController {
+
+    private final JournalService journalService;
+
+    // Tail the change journal from an offset
+    @GetMapping("/events")
+    public ResponseEntity<ApiResponse<JournalPage>> events(
+            @RequestParam(name = "from", defaultValue = "0") long from,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.<JournalPage>builder()
+                .success(true)
+                .message("Journal events fetched successfully")
+                .data(journalService.read(from, limit))
+                .build());
+    }
+
+    @GetMapping("/segments")
+    public ResponseEntity<ApiResponse<List<SegmentedJournal.SegmentInfo>>> segments() {
+        return ResponseEntity.ok(ApiResponse.<List<SegmentedJournal.SegmentInfo>>builder()
+                .success(true)
+                .message("Journal segments fetched successfully")
+                .data(journalService.segments())
+                .build());
+    }
+
+    // Compact closed segments now instead of waiting for the schedule
+    @PostMapping("/compact")
+    public ResponseEntity<ApiResponse<SegmentedJournal.CompactionResult>> compact() {
+        return ResponseEntity.ok(ApiResponse.<SegmentedJournal.CompactionResult>builder()
+                .success(true)
+                .message("Journal compaction completed")
+                .data(journalService.compact())
+                .build());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.library.controller;
+
+/**
+ * Media types beyond Spring's {@link org.springframework.http.MediaType} constants
+ */
+final class MediaTypes {
+
+    // Jackson Smile: binary JSON with back-referenced field names, so repeated keys in a list are sent once
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private MediaTypes() {
+    }
+}
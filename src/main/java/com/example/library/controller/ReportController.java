@@ -0,0 +1,39 @@
+package com.example.library.controller;
+
+import com.example.library.dto.ApiResponse;
+import com.example.library.dto.MonthEndReport;
+import com.example.library.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping(path = "/reports", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportService reportService;
+
+    // Build the month-end report for "month" (yyyy-MM, default previous month) or for an explicit [from, to) range
+    @PostMapping("/month-end")
+    public ResponseEntity<ApiResponse<MonthEndReport>> monthEnd(
+            @RequestParam(name = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            YearMonth period = month != null ? month : YearMonth.now().minusMonths(1);
+            from = period.atDay(1);
+            to = period.plusMonths(1).atDay(1);
+        }
+        return ResponseEntity.ok(ApiResponse.<MonthEndReport>builder()
+                .success(true)
+                .message("Report generated successfully")
+                .data(reportService.generate(from, to))
+                .build());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.library.diagnostics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the current request; Hibernate creates one instance per session
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) stats.jdbcStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) stats.jdbcEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.library.diagnostics;
+
+import com.example.library.controller.BookController;
+import com.example.library.controller.BorrowController;
+import com.example.library.controller.BorrowerController;
+import com.example.library.dto.SlowRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks SQL work per request to the catalog, borrowing and borrower endpoints, logs requests that go over
+ * the statement or latency budget and keeps them in the {@link SlowRequestLog}.
+ */
+@Slf4j
+@Component
+public class RequestDiagnosticsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Set<Class<?>> INSTRUMENTED = Set.of(
+            BookController.class, BorrowController.class, BorrowerController.class);
+
+    private final SlowRequestLog slowRequests;
+    private final int statementBudget;
+    private final long latencyBudgetMs;
+
+    public RequestDiagnosticsInterceptor(SlowRequestLog slowRequests,
+                                         @Value("${library.diagnostics.statement-budget:20}") int statementBudget,
+                                         @Value("${library.diagnostics.latency-budget:500ms}") Duration latencyBudget) {
+        this.slowRequests = slowRequests;
+        this.statementBudget = statementBudget;
+        this.latencyBudgetMs = latencyBudget.toMillis();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && INSTRUMENTED.contains(method.getBeanType())) {
+            RequestStats.start();
+        }
+        return true;
+    }
+
+    // Streaming responses finish on another thread; only the synchronous part is measured
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStats.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStats stats = RequestStats.current();
+        if (stats == null) return;
+        RequestStats.clear();
+
+        long elapsedMs = stats.getElapsedMillis();
+        boolean overStatements = stats.getStatements() > statementBudget;
+        boolean overLatency = elapsedMs > latencyBudgetMs;
+        if (!overStatements && !overLatency) return;
+
+        String path = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        log.warn("{} {} over budget: {} ms (budget {} ms), {} statements (budget {}), {} ms JDBC, {} entities loaded\n{}",
+                request.getMethod(), path, elapsedMs, latencyBudgetMs, stats.getStatements(), statementBudget,
+                stats.getJdbcMillis(), stats.getEntitiesLoaded(),
+                stats.getFingerprints().entrySet().stream()
+                        .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                        .collect(Collectors.joining("\n")));
+
+        slowRequests.add(SlowRequest.builder()
+                .timestamp(Instant.now())
+                .method(request.getMethod())
+                .path(path)
+                .status(response.getStatus())
+                .durationMs(elapsedMs)
+                .statements(stats.getStatements())
+                .jdbcTimeMs(stats.getJdbcMillis())
+                .entitiesLoaded(stats.getEntitiesLoaded())
+                .fingerprints(new LinkedHashMap<>(stats.getFingerprints()))
+                .build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.library.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, JDBC time and entity loads of the HTTP request running on the current thread.
+ * <p>
+ * The Hibernate hooks only record while a request has been started by {@link RequestDiagnosticsInterceptor};
+ * outside of one (scheduled jobs, startup) they cost a single thread-local read.
+ */
+public final class RequestStats {
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    // Distinct statement shapes kept per request; new shapes beyond it are folded into one bucket
+    private static final int MAX_FINGERPRINTS = 50;
+    private static final int MAX_FINGERPRINT_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long jdbcNanos;
+    private long jdbcStartNanos;
+    private int entitiesLoaded;
+    private final Map<String, Integer> fingerprints = new LinkedHashMap<>();
+
+    private RequestStats() {
+    }
+
+    static RequestStats start() {
+        RequestStats stats = new RequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void statementPrepared(String sql) {
+        statements++;
+        String fingerprint = fingerprint(sql);
+        if (!fingerprints.containsKey(fingerprint) && fingerprints.size() >= MAX_FINGERPRINTS) {
+            fingerprint = "(other statements)";
+        }
+        fingerprints.merge(fingerprint, 1, Integer::sum);
+    }
+
+    void jdbcStart() {
+        jdbcStartNanos = System.nanoTime();
+    }
+
+    void jdbcEnd() {
+        if (jdbcStartNanos != 0) {
+            jdbcNanos += System.nanoTime() - jdbcStartNanos;
+            jdbcStartNanos = 0;
+        }
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public Map<String, Integer> getFingerprints() {
+        return fingerprints;
+    }
+
+    // Literals and IN-list lengths removed so the same query shape always maps to one key
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?, ...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_FINGERPRINT_LENGTH
+                ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..."
+                : normalized;
+    }
+}
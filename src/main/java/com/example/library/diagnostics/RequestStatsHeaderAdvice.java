@@ -0,0 +1,41 @@
+package com.example.library.diagnostics;
+
+import com.example.library.controller.BookController;
+import com.example.library.controller.BorrowController;
+import com.example.library.controller.BorrowerController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Reports the request's SQL work in response headers, written just before the body
+ */
+@ControllerAdvice(assignableTypes = {BookController.class, BorrowController.class, BorrowerController.class})
+@ConditionalOnProperty(name = "library.diagnostics.response-headers", havingValue = "true")
+public class RequestStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) {
+            HttpHeaders headers = response.getHeaders();
+            headers.set("X-SQL-Statements", String.valueOf(stats.getStatements()));
+            headers.set("X-SQL-Time-Ms", String.valueOf(stats.getJdbcMillis()));
+            headers.set("X-Entities-Loaded", String.valueOf(stats.getEntitiesLoaded()));
+        }
+        return body;
+    }
+}
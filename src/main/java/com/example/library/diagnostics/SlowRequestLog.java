@@ -0,0 +1,51 @@
+package com.example.library.diagnostics;
+
+import com.example.library.dto.SlowRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent over-budget requests; the oldest entry is overwritten first
+ */
+@Component
+public class SlowRequestLog {
+
+    private final SlowRequest[] ring;
+    private int next;
+
+    public SlowRequestLog(@Value("${library.diagnostics.slow-request-capacity:100}") int capacity) {
+        this.ring = new SlowRequest[Math.max(1, capacity)];
+    }
+
+    public synchronized void add(SlowRequest request) {
+        ring[next] = request;
+        next = (next + 1) % ring.length;
+    }
+
+    /**
+     * Recorded requests, slowest first
+     */
+    public List<SlowRequest> slowest(int limit) {
+        List<SlowRequest> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(ring.length);
+            for (SlowRequest request : ring) {
+                if (request != null) snapshot.add(request);
+            }
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(SlowRequest::getDurationMs).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.library.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts and fingerprints every statement Hibernate prepares for the current request
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStats stats = RequestStats.current();
+        if (stats != null) stats.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.library.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class AccrualReport {
+    private LocalDate runDate;
+    private boolean resumed;
+    private long recordsAccrued;
+    private long recordsSettled;
+    private double finesAccrued;
+    private double finesSettled;
+    private long durationMs;
+}
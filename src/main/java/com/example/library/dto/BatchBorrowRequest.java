@@ -0,0 +1,12 @@
+package com.example.library.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BatchBorrowRequest {
+    private UUID borrowerId;
+    private List<UUID> bookIds;
+}
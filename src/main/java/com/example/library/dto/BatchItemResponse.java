@@ -0,0 +1,23 @@
+package com.example.library.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BatchItemResponse {
+    private UUID bookId;
+    private boolean success;
+    private String message;
+    private BorrowRecordResponse record;
+
+    public static BatchItemResponse success(UUID bookId, String message, BorrowRecordResponse record) {
+        return BatchItemResponse.builder().bookId(bookId).success(true).message(message).record(record).build();
+    }
+
+    public static BatchItemResponse failure(UUID bookId, String message) {
+        return BatchItemResponse.builder().bookId(bookId).success(false).message(message).build();
+    }
+}
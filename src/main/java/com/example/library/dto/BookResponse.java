@@ -1,5 +1,6 @@
 package com.example.library.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 
@@ -15,4 +16,7 @@ public class BookResponse {
     private boolean available;
     private int totalCopies;
     private int availableCopies;
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private long version;
 }
@@ -1,5 +1,6 @@
 package com.example.library.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDate;
@@ -7,6 +8,7 @@ import java.util.UUID;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class BorrowRecordResponse {
     private UUID id;
     private UUID bookId;
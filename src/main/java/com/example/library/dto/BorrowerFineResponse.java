@@ -0,0 +1,18 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BorrowerFineResponse {
+    private UUID borrowerId;
+    private String borrowerName;
+    private double outstandingFines;
+}
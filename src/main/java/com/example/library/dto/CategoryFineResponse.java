@@ -0,0 +1,15 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryFineResponse {
+    private String category;
+    private double outstandingFines;
+}
@@ -0,0 +1,9 @@
+package com.example.library.dto;
+
+import lombok.Data;
+
+@Data
+public class FinePolicyRequest {
+    private String category;
+    private double finePerDay;
+}
@@ -0,0 +1,12 @@
+package com.example.library.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FinePolicyResponse {
+    private Long id;
+    private String category;
+    private double finePerDay;
+}
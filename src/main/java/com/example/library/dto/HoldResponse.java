@@ -0,0 +1,27 @@
+package com.example.library.dto;
+
+import com.example.library.entity.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldResponse {
+    private UUID id;
+    private UUID bookId;
+    private String bookTitle;
+    private UUID borrowerId;
+    private HoldStatus status;
+    // Waiting holds ahead of this one; only set while the hold is waiting
+    private Long position;
+    private LocalDateTime createdAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime expiresAt;
+}
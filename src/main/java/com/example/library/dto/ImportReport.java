@@ -0,0 +1,22 @@
+package com.example.library.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ImportReport {
+    private String format;
+    private long rowsRead;
+    private long inserted;
+    private long merged;
+    private long duplicates;
+    private long rejected;
+    // Valid rows in batches that failed to commit; see errors for the line ranges
+    private long failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    private List<String> errors;
+}
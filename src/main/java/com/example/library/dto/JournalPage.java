@@ -0,0 +1,19 @@
+package com.example.library.dto;
+
+import com.example.library.journal.JournalRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalPage {
+    private List<JournalRecord> events;
+    // Offset to read from next
+    private long nextOffset;
+    // Offset the next appended event will get
+    private long endOffset;
+}
@@ -0,0 +1,56 @@
+package com.example.library.dto;
+
+import com.example.library.entity.MembershipType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class MonthEndReport {
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDate asOf;
+    private long recordsScanned;
+    private int partitions;
+    private int parallelism;
+    private long durationMs;
+    private List<CategoryOverdue> overdueByCategory;
+    private List<MembershipFines> finesByMembership;
+    private List<LateBorrower> topLateBorrowers;
+    private List<String> files;
+
+    @Data
+    @AllArgsConstructor
+    public static class CategoryOverdue {
+        private String category;
+        private long loans;
+        private long lateLoans;
+        private long stillOpenOverdue;
+        private long daysLate;
+        private double fines;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class MembershipFines {
+        private MembershipType membershipType;
+        private long loans;
+        private long lateLoans;
+        private double fines;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class LateBorrower {
+        private UUID borrowerId;
+        private String borrowerName;
+        private long lateLoans;
+        private long daysLate;
+        private double fines;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.library.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+public class SlowRequest {
+    private Instant timestamp;
+    private String method;
+    private String path;
+    private int status;
+    private long durationMs;
+    private int statements;
+    private long jdbcTimeMs;
+    private int entitiesLoaded;
+    private Map<String, Integer> fingerprints;
+}
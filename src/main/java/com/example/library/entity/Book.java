@@ -2,17 +2,29 @@ package com.example.library.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.util.UUID;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_deleted_category_available_title", columnList = "deleted, category, is_available, title"),
+        @Index(name = "idx_books_deleted_available_title", columnList = "deleted, is_available, title"),
+        @Index(name = "idx_books_deleted_title", columnList = "deleted, title"),
+        @Index(name = "idx_books_deleted_category_available_author", columnList = "deleted, category, is_available, author"),
+        @Index(name = "idx_books_deleted_available_author", columnList = "deleted, is_available, author"),
+        @Index(name = "idx_books_deleted_author", columnList = "deleted, author"),
+        @Index(name = "idx_books_isbn", columnList = "isbn")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, updatable = false, nullable = false)
     private UUID id;
 
     @Column(nullable = false)
@@ -31,4 +43,8 @@ public class Book {
     private int availableCopies;
 
     private boolean deleted = false;
+
+    // Bumped by every change, including the copy-count UPDATEs in BookRepository; served as the ETag
+    @Version
+    private long version;
 }
@@ -2,25 +2,37 @@ package com.example.library.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "borrow_records")
+@Table(name = "borrow_records", indexes = {
+        @Index(name = "idx_borrow_records_borrower_borrow_date", columnList = "borrower_id, borrow_date, id"),
+        @Index(name = "idx_borrow_records_borrower_book_open", columnList = "borrower_id, book_id, return_date"),
+        @Index(name = "idx_borrow_records_return_due", columnList = "return_date, due_date, id"),
+        @Index(name = "idx_borrow_records_borrower_open_due", columnList = "borrower_id, return_date, due_date, id"),
+        @Index(name = "idx_borrow_records_book_open_due", columnList = "book_id, return_date, due_date, id"),
+        @Index(name = "idx_borrow_records_outstanding_fine", columnList = "outstanding_fine"),
+        @Index(name = "idx_borrow_records_borrow_date", columnList = "borrow_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BorrowRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, updatable = false, nullable = false)
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id")
     private Book book;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "borrower_id")
     private Borrower borrower;
 
@@ -30,5 +42,12 @@ public class BorrowRecord {
 
     private LocalDate returnDate;
 
+    // Accrued so far while open, final once returned
     private Double fineAmount;
+
+    // Last day fineAmount was accrued for; the accrual run skips records already current
+    private LocalDate accruedThrough;
+
+    // Part of the accrued fine currently counted in the outstanding totals; settled to 0 after return
+    private Double outstandingFine;
 }
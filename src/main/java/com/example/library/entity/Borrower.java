@@ -2,17 +2,23 @@ package com.example.library.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.util.UUID;
 
 @Entity
-@Table(name = "borrowers")
+@Table(name = "borrowers", indexes = {
+        @Index(name = "idx_borrowers_outstanding_fines", columnList = "outstanding_fines")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Borrower {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, updatable = false, nullable = false)
     private UUID id;
 
     private String name;
@@ -24,4 +30,13 @@ public class Borrower {
     private MembershipType membershipType = MembershipType.BASIC;
 
     private int maxBorrowLimit;
+
+    // Number of open borrow records, maintained on borrow and return
+    private int activeLoans;
+
+    // Fines accrued on this borrower's open loans, maintained by FineAccrualService
+    private double outstandingFines;
+
+    // Bumped whenever this borrower's history changes (borrow, return, fine accrual); served as the history ETag
+    private long historyVersion;
 }
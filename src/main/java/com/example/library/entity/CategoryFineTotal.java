@@ -0,0 +1,20 @@
+package com.example.library.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Fines accrued on open loans of one book category, maintained by FineAccrualService
+ */
+@Entity
+@Table(name = "category_fine_totals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryFineTotal {
+    @Id
+    private String category;
+
+    private double outstandingFines;
+}
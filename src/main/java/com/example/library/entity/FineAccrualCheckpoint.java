@@ -0,0 +1,33 @@
+package com.example.library.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Keyset position of the fine accrual run for a given day, committed with every chunk
+ */
+@Entity
+@Table(name = "fine_accrual_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FineAccrualCheckpoint {
+    @Id
+    private String name;
+
+    private LocalDate runDate;
+
+    private LocalDate lastDueDate;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID lastRecordId;
+
+    private boolean completed;
+}
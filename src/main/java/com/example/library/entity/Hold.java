@@ -0,0 +1,49 @@
+package com.example.library.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A patron's place in a book's hold queue; ids are time ordered, so id order is queue order
+ */
+@Entity
+@Table(name = "holds", indexes = {
+        @Index(name = "idx_holds_book_status_id", columnList = "book_id, status, id"),
+        @Index(name = "idx_holds_borrower_book_status", columnList = "borrower_id, book_id, status"),
+        @Index(name = "idx_holds_status_expires_at", columnList = "status, expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Hold {
+    @Id
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "borrower_id", nullable = false)
+    private Borrower borrower;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status;
+
+    private LocalDateTime createdAt;
+
+    // Set when a returned copy is set aside for this hold; the copy is released again after expiresAt
+    private LocalDateTime readyAt;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,9 @@
+package com.example.library.entity;
+
+public enum HoldStatus {
+    WAITING,
+    READY,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,24 @@
+package com.example.library.entity;
+
+/**
+ * Journal event types; the key prefix groups events about the same entity for compaction
+ */
+public enum JournalEventType {
+    BOOK_CREATED("book"),
+    BOOK_UPDATED("book"),
+    BOOK_DELETED("book"),
+    BOOK_BORROWED("loan"),
+    BOOK_RETURNED("loan"),
+    FINE_ACCRUED("fine"),
+    FINE_SETTLED("fine");
+
+    private final String keyPrefix;
+
+    JournalEventType(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public String keyFor(Object id) {
+        return keyPrefix + ":" + id;
+    }
+}
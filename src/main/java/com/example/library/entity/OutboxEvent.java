@@ -0,0 +1,42 @@
+package com.example.library.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A journal event written in the same transaction as the change it describes; the relay moves it to the journal
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16, updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private JournalEventType type;
+
+    @Column(name = "event_key", nullable = false, length = 64)
+    private String key;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Serialized JSON payload; without a length a LOB maps to MySQL tinytext (255 bytes)
+    @Lob
+    @Column(nullable = false, length = Length.LONG32)
+    private String payload;
+}
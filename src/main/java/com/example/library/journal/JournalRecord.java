@@ -0,0 +1,18 @@
+package com.example.library.journal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One journal entry as stored in a segment file (one JSON object per line).
+ * The key names the entity the event is about; compaction keeps the latest entry per key.
+ */
+public record JournalRecord(long offset, UUID eventId, String type, String key, LocalDateTime occurredAt,
+                            JsonNode payload) {
+
+    public JournalRecord withOffset(long offset) {
+        return new JournalRecord(offset, eventId, type, key, occurredAt, payload);
+    }
+}
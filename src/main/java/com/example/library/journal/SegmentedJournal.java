@@ -0,0 +1,354 @@
+package com.example.library.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of {@link JournalRecord}s split into segment files named after their first offset.
+ * <p>
+ * Offsets are assigned densely at append time. Only the newest segment is written; it is closed and a new one
+ * started once it reaches the size limit. Each segment keeps a sparse in-memory index (every
+ * {@value #INDEX_INTERVAL}th offset to its file position), so a read seeks close to the requested offset instead of
+ * scanning the segment. Readers only see records whose batch has been forced to disk.
+ * <p>
+ * Compaction rewrites closed segments keeping only the latest record per key; offsets are preserved, so compacted
+ * ranges simply have gaps. Single writer: one instance owns the directory.
+ */
+@Slf4j
+public class SegmentedJournal implements Closeable {
+
+    private static final String SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}" + Pattern.quote(SUFFIX));
+    private static final int INDEX_INTERVAL = 256;
+
+    private final Path dir;
+    private final long segmentMaxBytes;
+    private final ObjectMapper objectMapper;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Held by readers while they read, and by compaction only while it swaps a rewritten file in
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object compactionMonitor = new Object();
+
+    private FileChannel active;
+    private volatile long nextOffset;
+
+    public SegmentedJournal(Path dir, long segmentMaxBytes, ObjectMapper objectMapper) throws IOException {
+        this.dir = dir;
+        this.segmentMaxBytes = Math.max(1, segmentMaxBytes);
+        this.objectMapper = objectMapper;
+
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTING_SUFFIX)) {
+                    // Left behind by an interrupted compaction; the original segment is still intact
+                    Files.delete(file);
+                } else if (SEGMENT_NAME.matcher(name).matches()) {
+                    long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    segments.put(base, load(file, base));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, new Segment(0, segmentPath(0), new ConcurrentSkipListMap<>(), State.EMPTY));
+        }
+
+        Segment last = segments.lastEntry().getValue();
+        State state = last.state;
+        nextOffset = state.records > 0 ? state.lastOffset + 1 : last.base;
+        active = FileChannel.open(last.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        active.position(state.size);
+    }
+
+    /**
+     * Offset the next appended record will get
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Append records in order, assigning consecutive offsets, and force them to disk before returning
+     */
+    public synchronized List<JournalRecord> append(List<JournalRecord> records) throws IOException {
+        List<JournalRecord> appended = new ArrayList<>(records.size());
+        Batch batch = new Batch();
+        Segment segment = segments.lastEntry().getValue();
+
+        for (JournalRecord record : records) {
+            if (segment.state.size + batch.buffer.size() >= segmentMaxBytes && segment.state.records + batch.records > 0) {
+                batch.writeTo(segment);
+                segment = roll();
+            }
+            JournalRecord numbered = record.withOffset(nextOffset);
+            int recordsInSegment = segment.state.records + batch.records;
+            if (recordsInSegment % INDEX_INTERVAL == 0) {
+                batch.marks.put(numbered.offset(), segment.state.size + batch.buffer.size());
+            }
+            batch.buffer.write(objectMapper.writeValueAsBytes(numbered));
+            batch.buffer.write('\n');
+            batch.records++;
+            batch.lastOffset = numbered.offset();
+            nextOffset++;
+            appended.add(numbered);
+        }
+        batch.writeTo(segment);
+        return appended;
+    }
+
+    /**
+     * Up to max records with offset >= from, in offset order
+     */
+    public List<JournalRecord> read(long from, int max) throws IOException {
+        List<JournalRecord> out = new ArrayList<>(Math.min(max, 1024));
+        swapLock.readLock().lock();
+        try {
+            Long start = segments.floorKey(from);
+            for (Segment segment : segments.tailMap(start != null ? start : segments.firstKey(), true).values()) {
+                if (out.size() >= max) break;
+                segment.read(from, max - out.size(), out);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        return out;
+    }
+
+    /**
+     * Rewrite closed segments keeping only the latest record per key
+     */
+    public CompactionResult compact() throws IOException {
+        synchronized (compactionMonitor) {
+            List<Segment> snapshot = new ArrayList<>(segments.values());
+            List<Segment> closed = snapshot.subList(0, snapshot.size() - 1);
+            if (closed.isEmpty()) return new CompactionResult(0, 0, 0, 0);
+
+            // Latest offset per key across the whole log, including the open segment
+            Map<String, Long> latest = new HashMap<>();
+            for (Segment segment : snapshot) {
+                segment.forEach(r -> {
+                    if (r.key() != null) latest.put(r.key(), r.offset());
+                });
+            }
+
+            int rewritten = 0;
+            long before = 0;
+            long after = 0;
+            long bytesFreed = 0;
+            for (Segment segment : closed) {
+                State state = segment.state;
+                Path tmp = dir.resolve(segment.path.getFileName() + COMPACTING_SUFFIX);
+                long[] kept = new long[1];
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    segment.forEach(r -> {
+                        if (r.key() != null && latest.get(r.key()) != r.offset()) return;
+                        out.write(objectMapper.writeValueAsBytes(r));
+                        out.write('\n');
+                        kept[0]++;
+                    });
+                }
+                before += state.records;
+                after += kept[0];
+                if (kept[0] == state.records) {
+                    Files.delete(tmp);
+                    continue;
+                }
+
+                Segment compacted = load(tmp, segment.base);
+                swapLock.writeLock().lock();
+                try {
+                    if (kept[0] == 0) {
+                        // Nothing left: drop the segment; readers skip the gap
+                        segments.remove(segment.base);
+                        Files.delete(tmp);
+                        Files.delete(segment.path);
+                    } else {
+                        Files.move(tmp, segment.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        segments.put(segment.base, compacted.movedTo(segment.path));
+                    }
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+                bytesFreed += state.size - compacted.state.size;
+                rewritten++;
+            }
+            return new CompactionResult(rewritten, before, after, bytesFreed);
+        }
+    }
+
+    public List<SegmentInfo> segments() {
+        return segments.values().stream()
+                .map(s -> new SegmentInfo(s.base, s.state.records > 0 ? s.state.lastOffset : null,
+                        s.state.records, s.state.size, s == segments.lastEntry().getValue()))
+                .toList();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+    }
+
+    // Caller holds the append monitor and has written out the full segment
+    private Segment roll() throws IOException {
+        active.close();
+        Segment next = new Segment(nextOffset, segmentPath(nextOffset), new ConcurrentSkipListMap<>(), State.EMPTY);
+        active = FileChannel.open(next.path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.put(next.base, next);
+        return next;
+    }
+
+    private Path segmentPath(long base) {
+        return dir.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    // Scans a segment file to rebuild its index; a torn last line from a crash mid-append is cut off
+    private Segment load(Path file, long base) throws IOException {
+        NavigableMap<Long, Long> index = new ConcurrentSkipListMap<>();
+        long position = 0;
+        long lastOffset = -1;
+        int records = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                JournalRecord record = objectMapper.readValue(line.toByteArray(), JournalRecord.class);
+                if (records % INDEX_INTERVAL == 0) index.put(record.offset(), position);
+                position += line.size() + 1;
+                lastOffset = record.offset();
+                records++;
+                line.reset();
+            }
+            if (line.size() > 0) {
+                log.warn("Truncating {} bytes of an incomplete record at the end of {}", line.size(), file);
+            }
+        }
+        if (Files.size(file) > position) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+        return new Segment(base, file, index, new State(position, lastOffset, records));
+    }
+
+    private interface RecordConsumer {
+        void accept(JournalRecord record) throws IOException;
+    }
+
+    // Published extent of a segment; replaced as a whole so readers see a consistent size, count and last offset
+    private record State(long size, long lastOffset, int records) {
+        static final State EMPTY = new State(0, -1, 0);
+    }
+
+    private final class Segment {
+        final long base;
+        final Path path;
+        final NavigableMap<Long, Long> index;
+        volatile State state;
+
+        Segment(long base, Path path, NavigableMap<Long, Long> index, State state) {
+            this.base = base;
+            this.path = path;
+            this.index = index;
+            this.state = state;
+        }
+
+        Segment movedTo(Path target) {
+            return new Segment(base, target, index, state);
+        }
+
+        void read(long from, int max, List<JournalRecord> out) throws IOException {
+            State published = state;
+            if (published.records == 0 || published.lastOffset < from) return;
+            Map.Entry<Long, Long> mark = index.floorEntry(from);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel.position(mark != null ? mark.getValue() : 0);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                int added = 0;
+                String line;
+                // Stop at the published last offset; anything after it may still be mid-write
+                while (added < max && (line = reader.readLine()) != null) {
+                    JournalRecord record = objectMapper.readValue(line, JournalRecord.class);
+                    if (record.offset() >= from) {
+                        out.add(record);
+                        added++;
+                    }
+                    if (record.offset() >= published.lastOffset) break;
+                }
+            }
+        }
+
+        void forEach(RecordConsumer consumer) throws IOException {
+            State published = state;
+            if (published.records == 0) return;
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JournalRecord record = objectMapper.readValue(line, JournalRecord.class);
+                    consumer.accept(record);
+                    if (record.offset() >= published.lastOffset) break;
+                }
+            }
+        }
+    }
+
+    // Records encoded for one segment, written with a single write and force
+    private final class Batch {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final Map<Long, Long> marks = new HashMap<>();
+        int records;
+        long lastOffset;
+
+        void writeTo(Segment segment) throws IOException {
+            if (records == 0) return;
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) active.write(bytes);
+            active.force(false);
+            segment.index.putAll(marks);
+            State previous = segment.state;
+            segment.state = new State(previous.size + buffer.size(), lastOffset, previous.records + records);
+            buffer.reset();
+            marks.clear();
+            records = 0;
+        }
+    }
+
+    public record SegmentInfo(long baseOffset, Long lastOffset, int records, long bytes, boolean active) {
+    }
+
+    public record CompactionResult(int segmentsRewritten, long recordsBefore, long recordsAfter, long bytesFreed) {
+    }
+}
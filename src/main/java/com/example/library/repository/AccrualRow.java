@@ -0,0 +1,15 @@
+package com.example.library.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Columns of a borrow record the fine accrual run needs, read without hydrating entities
+ */
+public interface AccrualRow {
+    UUID getId();
+    LocalDate getDueDate();
+    String getCategory();
+    UUID getBorrowerId();
+    Double getOutstandingFine();
+}
@@ -0,0 +1,12 @@
+package com.example.library.repository;
+
+import java.util.UUID;
+
+/**
+ * Identity columns of a book, used to dedupe bulk imports without hydrating entities
+ */
+public interface BookKey {
+    UUID getId();
+    String getTitle();
+    String getIsbn();
+}
@@ -1,13 +1,46 @@
 package com.example.library.repository;
 
 import com.example.library.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificationExecutor<Book> {
     Optional<Book> findByTitleAndDeletedFalse(String title);
     Optional<Book> findByIsbnAndDeletedFalse(String isbn);
     List<Book> findByCategoryAndDeletedFalse(String category);
+    long countByDeletedFalseAndAvailableCopies(int availableCopies);
+
+    // Id-ordered batches for walking the whole catalog without offset scans
+    List<Book> findByDeletedFalseOrderByIdAsc(Pageable pageable);
+    List<Book> findByDeletedFalseAndIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+    // Streams dedupe keys of the live catalog; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select b.id as id, b.title as title, b.isbn as isbn from Book b where b.deleted = false")
+    Stream<BookKey> streamActiveKeys();
+
+    // Atomic copy claim: the WHERE guard makes overselling impossible without a read-then-write race.
+    // isAvailable is assigned first so it is derived from the pre-update count on every database.
+    @Modifying
+    @Query("update Book b set b.isAvailable = case when b.availableCopies > 1 then true else false end,"
+            + " b.availableCopies = b.availableCopies - 1, b.version = b.version + 1"
+            + " where b.id = :id and b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update Book b set b.isAvailable = true, b.availableCopies = b.availableCopies + 1, b.version = b.version + 1"
+            + " where b.id = :id")
+    int incrementAvailableCopies(@Param("id") UUID id);
 }
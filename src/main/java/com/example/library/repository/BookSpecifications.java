@@ -0,0 +1,42 @@
+package com.example.library.repository;
+
+import com.example.library.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Reusable catalog filters, evaluated in SQL by {@link BookRepository}
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.get("deleted"));
+    }
+
+    public static Specification<Book> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Book> isAvailable(boolean available) {
+        return (root, query, cb) -> cb.equal(root.get("isAvailable"), available);
+    }
+
+    /**
+     * Keyset predicate: rows strictly after (value, id) in ascending (field, id) order, nulls first.
+     * After a null value come the remaining nulls by id, then every non-null value.
+     */
+    public static <Y extends Comparable<? super Y>> Specification<Book> after(String field, Y value, UUID id) {
+        if (value == null) {
+            return (root, query, cb) -> cb.or(
+                    cb.isNotNull(root.get(field)),
+                    cb.and(cb.isNull(root.get(field)), cb.greaterThan(root.<UUID>get("id"), id)));
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.<Y>get(field), value),
+                cb.and(cb.equal(root.get(field), value), cb.greaterThan(root.<UUID>get("id"), id)));
+    }
+}
@@ -1,14 +1,178 @@
 package com.example.library.repository;
 
+import com.example.library.dto.BorrowRecordResponse;
 import com.example.library.entity.BorrowRecord;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, UUID> {
-    List<BorrowRecord> findByBorrowerId(UUID borrowerId);
-    List<BorrowRecord> findByReturnDateIsNullAndDueDateBefore(LocalDate date);
-    List<BorrowRecord> findByReturnDateIsNull();
+    // Read paths select straight into the response DTO over a single join; no entities are hydrated
+    String RESPONSE_PROJECTION = "select new com.example.library.dto.BorrowRecordResponse("
+            + "r.id, b.id, b.title, br.id, br.name, r.borrowDate, r.dueDate, r.returnDate, coalesce(r.fineAmount, 0.0))"
+            + " from BorrowRecord r join r.book b join r.borrower br";
+
+    // Open records in a due-date window after a keyset position, earliest due first
+    String OPEN_PAGE_WINDOW = "r.returnDate is null and r.dueDate >= :dueFrom and r.dueDate < :dueTo"
+            + " and (r.dueDate > :afterDue or (r.dueDate = :afterDue and r.id > :afterId))"
+            + " order by r.dueDate asc, r.id asc";
+
+    // Closes an open record exactly once; a concurrent duplicate return updates zero rows.
+    // Pending writes (outbox events, hold changes) are flushed before the clear, or it would discard them.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BorrowRecord r set r.returnDate = :returnDate, r.fineAmount = :fineAmount"
+            + " where r.id = :id and r.returnDate is null")
+    int markReturned(@Param("id") UUID id,
+                     @Param("returnDate") LocalDate returnDate,
+                     @Param("fineAmount") double fineAmount);
+
+    // Write paths fetch the associations they need in the same statement
+    @Query("select r from BorrowRecord r join fetch r.book join fetch r.borrower"
+            + " where r.borrower.id = :borrowerId and r.book.id = :bookId and r.returnDate is null")
+    List<BorrowRecord> findOpenRecords(@Param("borrowerId") UUID borrowerId, @Param("bookId") UUID bookId, Pageable pageable);
+
+    default Optional<BorrowRecord> findOpenRecord(UUID borrowerId, UUID bookId) {
+        return findOpenRecords(borrowerId, bookId, Pageable.ofSize(1)).stream().findFirst();
+    }
+
+    @Query("select r from BorrowRecord r join fetch r.book join fetch r.borrower"
+            + " where r.borrower.id = :borrowerId and r.book.id in :bookIds and r.returnDate is null")
+    List<BorrowRecord> findOpenRecords(@Param("borrowerId") UUID borrowerId, @Param("bookIds") Collection<UUID> bookIds);
+
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId")
+    List<BorrowRecordResponse> findHistoryResponses(@Param("borrowerId") UUID borrowerId);
+
+    // Keyset pages of a borrower's history, newest first
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId order by r.borrowDate desc, r.id desc")
+    List<BorrowRecordResponse> findHistoryPage(@Param("borrowerId") UUID borrowerId, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId"
+            + " and (r.borrowDate < :borrowDate or (r.borrowDate = :borrowDate and r.id < :id))"
+            + " order by r.borrowDate desc, r.id desc")
+    List<BorrowRecordResponse> findHistoryAfter(@Param("borrowerId") UUID borrowerId,
+                                                @Param("borrowDate") LocalDate borrowDate,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
+
+    long countByReturnDateIsNull();
+
+    long countByReturnDateIsNullAndDueDateBefore(LocalDate today);
+
+    // Keyset pages of open records in a due-date window [dueFrom, dueTo), earliest due first; the first page
+    // passes afterDue = dueFrom - 1 day. Each filter combination has its own query so the planner sees a plain
+    // equality on the leading index column instead of an "(:param is null or ...)" it cannot use.
+    default List<BorrowRecordResponse> findOpenPage(LocalDate dueFrom, LocalDate dueTo, LocalDate afterDue, UUID afterId,
+                                                    String category, UUID borrowerId, Pageable pageable) {
+        if (borrowerId != null) {
+            return category != null
+                    ? findOpenPageByBorrowerAndCategory(borrowerId, category, dueFrom, dueTo, afterDue, afterId, pageable)
+                    : findOpenPageByBorrower(borrowerId, dueFrom, dueTo, afterDue, afterId, pageable);
+        }
+        return category != null
+                ? findOpenPageByCategory(category, dueFrom, dueTo, afterDue, afterId, pageable)
+                : findOpenPage(dueFrom, dueTo, afterDue, afterId, pageable);
+    }
+
+    // Served by idx_borrow_records_return_due (return_date, due_date, id)
+    @Query(RESPONSE_PROJECTION + " where " + OPEN_PAGE_WINDOW)
+    List<BorrowRecordResponse> findOpenPage(@Param("dueFrom") LocalDate dueFrom,
+                                            @Param("dueTo") LocalDate dueTo,
+                                            @Param("afterDue") LocalDate afterDue,
+                                            @Param("afterId") UUID afterId,
+                                            Pageable pageable);
+
+    // Served by idx_borrow_records_borrower_open_due (borrower_id, return_date, due_date, id)
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId and " + OPEN_PAGE_WINDOW)
+    List<BorrowRecordResponse> findOpenPageByBorrower(@Param("borrowerId") UUID borrowerId,
+                                                      @Param("dueFrom") LocalDate dueFrom,
+                                                      @Param("dueTo") LocalDate dueTo,
+                                                      @Param("afterDue") LocalDate afterDue,
+                                                      @Param("afterId") UUID afterId,
+                                                      Pageable pageable);
+
+    // Category lives on books: each matching book's open loans come from idx_borrow_records_book_open_due
+    // (book_id, return_date, due_date, id)
+    @Query(RESPONSE_PROJECTION + " where b.category = :category and " + OPEN_PAGE_WINDOW)
+    List<BorrowRecordResponse> findOpenPageByCategory(@Param("category") String category,
+                                                      @Param("dueFrom") LocalDate dueFrom,
+                                                      @Param("dueTo") LocalDate dueTo,
+                                                      @Param("afterDue") LocalDate afterDue,
+                                                      @Param("afterId") UUID afterId,
+                                                      Pageable pageable);
+
+    // Served by the borrower index; a borrower has at most maxBorrowLimit open loans to check the category on
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId and b.category = :category and " + OPEN_PAGE_WINDOW)
+    List<BorrowRecordResponse> findOpenPageByBorrowerAndCategory(@Param("borrowerId") UUID borrowerId,
+                                                                 @Param("category") String category,
+                                                                 @Param("dueFrom") LocalDate dueFrom,
+                                                                 @Param("dueTo") LocalDate dueTo,
+                                                                 @Param("afterDue") LocalDate afterDue,
+                                                                 @Param("afterId") UUID afterId,
+                                                                 Pageable pageable);
+
+    // Keyset chunks of open records whose fine has not been accrued for today, in due-date order
+    @Query("select r.id as id, r.dueDate as dueDate, b.category as category, br.id as borrowerId,"
+            + " r.outstandingFine as outstandingFine from BorrowRecord r join r.book b join r.borrower br"
+            + " where r.returnDate is null and r.dueDate < :today"
+            + " and (r.accruedThrough is null or r.accruedThrough < :today)"
+            + " and (r.dueDate > :afterDue or (r.dueDate = :afterDue and r.id > :afterId))"
+            + " order by r.dueDate asc, r.id asc")
+    List<AccrualRow> findAccrualChunk(@Param("today") LocalDate today,
+                                      @Param("afterDue") LocalDate afterDue,
+                                      @Param("afterId") UUID afterId,
+                                      Pageable pageable);
+
+    // Guarded by the previously counted amount so a concurrent return or a second run cannot double count
+    @Modifying
+    @Query("update BorrowRecord r set r.fineAmount = :fine, r.outstandingFine = :fine, r.accruedThrough = :today"
+            + " where r.id = :id and r.returnDate is null and coalesce(r.outstandingFine, 0.0) = :previous")
+    int accrueFine(@Param("id") UUID id, @Param("fine") double fine, @Param("today") LocalDate today,
+                   @Param("previous") double previous);
+
+    // Returned records still counted in the outstanding totals
+    @Query("select r.id as id, r.dueDate as dueDate, b.category as category, br.id as borrowerId,"
+            + " r.outstandingFine as outstandingFine from BorrowRecord r join r.book b join r.borrower br"
+            + " where r.outstandingFine > 0 and r.returnDate is not null and r.id > :afterId order by r.id asc")
+    List<AccrualRow> findSettlementChunk(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update BorrowRecord r set r.outstandingFine = 0.0 where r.id = :id and r.outstandingFine = :previous")
+    int settleFine(@Param("id") UUID id, @Param("previous") double previous);
+
+    // Streaming variants for exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE_PROJECTION + " where r.returnDate is null")
+    Stream<BorrowRecordResponse> streamActive();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE_PROJECTION + " where r.returnDate is null and r.dueDate < :today")
+    Stream<BorrowRecordResponse> streamOverdue(@Param("today") LocalDate today);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE_PROJECTION + " where br.id = :borrowerId")
+    Stream<BorrowRecordResponse> streamHistory(@Param("borrowerId") UUID borrowerId);
+
+    // One report partition: records borrowed in [from, to), served by idx_borrow_records_borrow_date
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "5000"))
+    @Query("select new com.example.library.repository.ReportRow(br.id, br.membershipType, b.category,"
+            + " r.dueDate, r.returnDate, r.fineAmount) from BorrowRecord r join r.book b join r.borrower br"
+            + " where r.borrowDate >= :from and r.borrowDate < :to")
+    Stream<ReportRow> streamReportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Most borrowed titles since a date, for pre-loading the book cache at startup
+    @Query("select r.book.id from BorrowRecord r where r.borrowDate >= :since group by r.book.id order by count(r) desc")
+    List<UUID> findMostBorrowedBookIds(@Param("since") LocalDate since, Pageable pageable);
 }
@@ -1,9 +1,48 @@
 package com.example.library.repository;
 
 import com.example.library.entity.Borrower;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BorrowerRepository extends JpaRepository<Borrower, UUID> {
+    // Takes loan slots only if they all fit under the borrower's limit; zero rows means limit reached
+    @Modifying
+    @Query("update Borrower b set b.activeLoans = b.activeLoans + :count, b.historyVersion = b.historyVersion + 1"
+            + " where b.id = :id and b.activeLoans + :count <= b.maxBorrowLimit")
+    int reserveActiveLoans(@Param("id") UUID id, @Param("count") int count);
+
+    @Modifying
+    @Query("update Borrower b set b.activeLoans = case when b.activeLoans > :count then b.activeLoans - :count else 0 end,"
+            + " b.historyVersion = b.historyVersion + 1 where b.id = :id")
+    int releaseActiveLoans(@Param("id") UUID id, @Param("count") int count);
+
+    @Modifying
+    @Query("update Borrower b set b.outstandingFines = b.outstandingFines + :delta,"
+            + " b.historyVersion = b.historyVersion + 1 where b.id = :id")
+    int addOutstandingFines(@Param("id") UUID id, @Param("delta") double delta);
+
+    // History entries carry the book title, so renaming a book changes the history of everyone who borrowed it
+    @Modifying
+    @Query("update Borrower b set b.historyVersion = b.historyVersion + 1"
+            + " where b.id in (select r.borrower.id from BorrowRecord r where r.book.id = :bookId)")
+    int bumpHistoryVersionForBook(@Param("bookId") UUID bookId);
+
+    // Conditional GET check for the history endpoints: one column by primary key
+    @Query("select b.historyVersion from Borrower b where b.id = :id")
+    Optional<Long> findHistoryVersion(@Param("id") UUID id);
+
+    List<Borrower> findByOutstandingFinesGreaterThanOrderByOutstandingFinesDesc(double minimum, Pageable pageable);
+
+    // Recomputes every counter from borrow_records; used once when adopting the counter column
+    @Modifying
+    @Query("update Borrower b set b.activeLoans = (select count(r) from BorrowRecord r"
+            + " where r.borrower.id = b.id and r.returnDate is null)")
+    int reconcileActiveLoans();
 }
@@ -0,0 +1,17 @@
+package com.example.library.repository;
+
+import com.example.library.entity.CategoryFineTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CategoryFineTotalRepository extends JpaRepository<CategoryFineTotal, String> {
+    List<CategoryFineTotal> findAllByOrderByOutstandingFinesDesc();
+
+    @Modifying
+    @Query("update CategoryFineTotal c set c.outstandingFines = c.outstandingFines + :delta where c.category = :category")
+    int addOutstandingFines(@Param("category") String category, @Param("delta") double delta);
+}
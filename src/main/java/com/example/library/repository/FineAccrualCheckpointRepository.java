@@ -0,0 +1,7 @@
+package com.example.library.repository;
+
+import com.example.library.entity.FineAccrualCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FineAccrualCheckpointRepository extends JpaRepository<FineAccrualCheckpoint, String> {
+}
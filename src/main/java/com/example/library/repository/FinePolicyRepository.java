@@ -4,4 +4,5 @@ import com.example.library.entity.FinePolicy;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface FinePolicyRepository extends JpaRepository<FinePolicy, Long> {
+    boolean existsByCategoryIgnoreCase(String category);
 }
@@ -0,0 +1,55 @@
+package com.example.library.repository;
+
+import com.example.library.entity.Hold;
+import com.example.library.entity.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface HoldRepository extends JpaRepository<Hold, UUID> {
+    // Oldest waiting hold of a book: a single seek on idx_holds_book_status_id
+    @Query("select h.id from Hold h where h.book.id = :bookId"
+            + " and h.status = com.example.library.entity.HoldStatus.WAITING order by h.id asc")
+    List<UUID> findQueueHead(@Param("bookId") UUID bookId, Pageable pageable);
+
+    // Conditional so two concurrent returns cannot assign both copies to the same hold
+    @Modifying
+    @Query("update Hold h set h.status = com.example.library.entity.HoldStatus.READY, h.readyAt = :now,"
+            + " h.expiresAt = :expiresAt where h.id = :id and h.status = com.example.library.entity.HoldStatus.WAITING")
+    int markReady(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Consumes the copy set aside for this borrower, if any
+    @Modifying
+    @Query("update Hold h set h.status = com.example.library.entity.HoldStatus.FULFILLED"
+            + " where h.borrower.id = :borrowerId and h.book.id = :bookId"
+            + " and h.status = com.example.library.entity.HoldStatus.READY")
+    int fulfillReady(@Param("borrowerId") UUID borrowerId, @Param("bookId") UUID bookId);
+
+    @Modifying
+    @Query("update Hold h set h.status = :to where h.id = :id and h.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+
+    boolean existsByBorrowerIdAndBookIdAndStatusIn(UUID borrowerId, UUID bookId, Collection<HoldStatus> statuses);
+
+    @Query("select count(h) from Hold h where h.book.id = :bookId"
+            + " and h.status = com.example.library.entity.HoldStatus.WAITING and h.id < :id")
+    long countAhead(@Param("bookId") UUID bookId, @Param("id") UUID id);
+
+    @Query("select h from Hold h join fetch h.book where h.borrower.id = :borrowerId order by h.id desc")
+    List<Hold> findByBorrower(@Param("borrowerId") UUID borrowerId);
+
+    @Query("select h from Hold h join fetch h.book join fetch h.borrower where h.id = :id")
+    Optional<Hold> findWithDetails(@Param("id") UUID id);
+
+    @Query("select h from Hold h where h.status = com.example.library.entity.HoldStatus.READY"
+            + " and h.expiresAt < :now order by h.expiresAt asc")
+    List<Hold> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.example.library.repository;
+
+import com.example.library.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.example.library.repository;
+
+import com.example.library.entity.MembershipType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Columns of a borrow record the report aggregations need, read as a constructor projection
+ */
+public record ReportRow(UUID borrowerId,
+                        MembershipType membershipType,
+                        String category,
+                        LocalDate dueDate,
+                        LocalDate returnDate,
+                        Double fineAmount) {
+}
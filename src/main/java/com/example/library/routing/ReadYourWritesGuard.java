@@ -0,0 +1,72 @@
+package com.example.library.routing;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Staleness guard for replica reads: after a client's write commits, its reads stay on the primary until the
+ * replica has had {@code maxLag} to catch up.
+ * <p>
+ * The rest of the writing request is pinned through the thread, and later requests through a cookie holding the
+ * pin's expiry, so a patron sees their own borrow on the next page load while other clients keep reading the replica.
+ */
+public class ReadYourWritesGuard implements TransactionExecutionListener, HandlerInterceptor {
+
+    static final String COOKIE = "LIBRARY_PRIMARY_UNTIL";
+
+    private final Duration maxLag;
+
+    public ReadYourWritesGuard(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) return;
+        long until = System.currentTimeMillis() + maxLag.toMillis();
+        ReplicaRouting.pinUntil(until);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, maxLag.toSeconds() + 1));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return true;
+        for (Cookie cookie : cookies) {
+            if (!COOKIE.equals(cookie.getName())) continue;
+            try {
+                // Never honour more than one lag window from now, whatever the client sends
+                long until = Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + maxLag.toMillis());
+                ReplicaRouting.pinUntil(until);
+            } catch (NumberFormatException ignored) {
+                // Not ours to fail the request over; reads just go to the replica
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        ReplicaRouting.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.library.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread overrides that keep read-only transactions on the primary.
+ * <p>
+ * A thread is pinned to the primary for the replica's maximum lag after it commits a write (or when the request
+ * carries the pin from an earlier write by the same client, see {@link ReadYourWritesGuard}), and for the duration
+ * of {@link #onPrimary} blocks. Without a replica configured nothing consults this.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Whether read-only work on this thread must still go to the primary
+     */
+    public static boolean primaryRequired() {
+        if (PRIMARY_DEPTH.get() != null) return true;
+        Long until = PINNED_UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    /**
+     * Run reads whose result outlives the request (cache loads) against the primary, so a lagging replica's
+     * pre-write state is never cached
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Integer depth = PRIMARY_DEPTH.get();
+        PRIMARY_DEPTH.set(depth == null ? 1 : depth + 1);
+        try {
+            return reads.get();
+        } finally {
+            if (depth == null) PRIMARY_DEPTH.remove();
+            else PRIMARY_DEPTH.set(depth);
+        }
+    }
+
+    static void pinUntil(long epochMillis) {
+        Long current = PINNED_UNTIL.get();
+        if (current == null || current < epochMillis) PINNED_UNTIL.set(epochMillis);
+    }
+
+    static Long pinnedUntil() {
+        return PINNED_UNTIL.get();
+    }
+
+    static void clear() {
+        PINNED_UNTIL.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.library.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The decision reads the transaction's read-only flag, which Spring only sets after the transaction manager has
+ * asked for a connection, so this must sit behind a LazyConnectionDataSourceProxy that defers the real lookup
+ * to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry registry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.primaryConnections = Counter.builder("library.datasource.connections").tag("target", "primary")
+                .description("Connections handed out per routing target").register(registry);
+        this.replicaConnections = Counter.builder("library.datasource.connections").tag("target", "replica")
+                .description("Connections handed out per routing target").register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReplicaRouting.primaryRequired();
+        (replica ? replicaConnections : primaryConnections).increment();
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.library.service;
+
+import com.example.library.repository.BorrowerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Backfills Borrower.activeLoans from borrow_records.
+ * Enable once after upgrading a database that predates the counter column.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.borrowers.reconcile-active-loans", havingValue = "true")
+public class ActiveLoanReconciler {
+
+    private final BorrowerRepository borrowerRepository;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        int updated = borrowerRepository.reconcileActiveLoans();
+        log.info("Reconciled active loan counters for {} borrowers", updated);
+    }
+}
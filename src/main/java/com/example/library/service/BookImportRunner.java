@@ -0,0 +1,60 @@
+package com.example.library.service;
+
+import com.example.library.dto.ImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line catalog import, e.g.
+ * {@code java -jar app.jar --library.import.file=catalog.csv --spring.main.web-application-type=none}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.import.file")
+public class BookImportRunner implements ApplicationRunner {
+
+    private final BookImportService bookImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${library.import.file}")
+    private String file;
+
+    @Value("${library.import.format:}")
+    private String format;
+
+    @Value("${library.import.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Path.of(file);
+        BookImportService.Format resolved = StringUtils.hasText(format)
+                ? BookImportService.Format.valueOf(format.trim().toUpperCase())
+                : BookImportService.detectFormat(path.getFileName().toString());
+
+        log.info("Importing {} catalog from {}", resolved, path.toAbsolutePath());
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(path)) {
+            report = bookImportService.importCatalog(in, resolved);
+        }
+        log.info("Imported {} rows in {} ms ({} rows/s)", report.getRowsRead(), report.getDurationMs(),
+                Math.round(report.getRowsPerSecond()));
+
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(context, () -> report.getRejected() + report.getFailed() > 0 ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.ImportReport;
+import com.example.library.entity.Book;
+import com.example.library.entity.JournalEventType;
+import com.example.library.repository.BookKey;
+import com.example.library.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams a CSV or NDJSON catalog into the books table.
+ * Rows follow the same rules as {@link BookService#addOrUpdate}: a known ISBN is a duplicate,
+ * a known title adds copies to the existing book, anything else is inserted.
+ */
+@Slf4j
+@Service
+public class BookImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final JournalService journalService;
+    private final BookSearchIndex searchIndex;
+    private final LookupCaches caches;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long progressInterval;
+
+    public BookImportService(BookRepository bookRepository,
+                             BookService bookService,
+                             JournalService journalService,
+                             BookSearchIndex searchIndex,
+                             LookupCaches caches,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${library.import.batch-size:1000}") int batchSize,
+                             @Value("${library.import.progress-interval:100000}") long progressInterval) {
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.journalService = journalService;
+        this.searchIndex = searchIndex;
+        this.caches = caches;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.batchSize = Math.max(1, batchSize);
+        this.progressInterval = Math.max(1, progressInterval);
+    }
+
+    /**
+     * Import every row of the stream, committing one transaction per batch
+     */
+    public ImportReport importCatalog(InputStream in, Format format) {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        Keys keys = loadKeys();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            RowParser parser = format == Format.CSV ? new CsvRowParser(reader.readLine()) : this::parseJsonRow;
+            List<BookRequest> batch = new ArrayList<>(batchSize);
+            String line;
+            long lineNo = format == Format.CSV ? 1 : 0;
+            long batchFirstLine = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                progress.rowsRead++;
+
+                try {
+                    BookRequest req = parser.parse(line);
+                    validate(req);
+                    if (batch.isEmpty()) batchFirstLine = lineNo;
+                    batch.add(req);
+                } catch (IllegalArgumentException ex) {
+                    progress.reject("Line " + lineNo + ": " + ex.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, batchFirstLine, lineNo, keys, progress);
+                    batch.clear();
+                }
+                if (progress.rowsRead % progressInterval == 0) logProgress(progress, start);
+            }
+            if (!batch.isEmpty()) writeBatch(batch, batchFirstLine, lineNo, keys, progress);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import stream: " + ex.getMessage(), ex);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        ImportReport report = ImportReport.builder()
+                .format(format.name())
+                .rowsRead(progress.rowsRead)
+                .inserted(progress.inserted)
+                .merged(progress.merged)
+                .duplicates(progress.duplicates)
+                .rejected(progress.rejected)
+                .failed(progress.failed)
+                .durationMs(durationMs)
+                .rowsPerSecond(durationMs > 0 ? progress.rowsRead * 1000.0 / durationMs : progress.rowsRead)
+                .errors(progress.errors)
+                .build();
+        log.info("Book import finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Pick the format from a file name or content type, defaulting to CSV
+     */
+    public static Format detectFormat(String nameOrContentType) {
+        if (nameOrContentType == null) return Format.CSV;
+        String value = nameOrContentType.toLowerCase(Locale.ROOT);
+        return value.contains("ndjson") || value.contains("jsonl") || value.endsWith("json") ? Format.NDJSON : Format.CSV;
+    }
+
+    // One transaction per batch. Keys and counts are staged and applied only after the commit, so a rolled-back
+    // batch leaves nothing behind; its rows are reported as failed and the import carries on with the next batch.
+    private void writeBatch(List<BookRequest> batch, long firstLine, long lastLine, Keys keys, Progress progress) {
+        Keys staged = new Keys();
+        Progress counted = new Progress();
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(batch, keys, staged, counted));
+        } catch (RuntimeException ex) {
+            log.warn("Book import batch at lines {}-{} failed and was rolled back: {}", firstLine, lastLine, ex.toString());
+            progress.fail(batch.size(), "Lines " + firstLine + "-" + lastLine + ": batch of " + batch.size()
+                    + " rows rolled back: " + ex.getMessage());
+            return;
+        }
+        keys.titles.putAll(staged.titles);
+        keys.isbns.addAll(staged.isbns);
+        progress.inserted += counted.inserted;
+        progress.merged += counted.merged;
+        progress.duplicates += counted.duplicates;
+    }
+
+    // New titles are inserted through a batching session, existing titles get their copy counts merged with batched updates
+    private void applyBatch(List<BookRequest> batch, Keys keys, Keys staged, Progress counted) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        Map<UUID, Integer> addedCopies = new LinkedHashMap<>();
+        List<Book> inserted = new ArrayList<>();
+
+        for (BookRequest req : batch) {
+            String title = req.getTitle().trim();
+            String isbn = req.getIsbn() != null ? req.getIsbn().trim() : null;
+
+            if (StringUtils.hasText(isbn) && (keys.isbns.contains(isbn) || staged.isbns.contains(isbn))) {
+                counted.duplicates++;
+                continue;
+            }
+
+            UUID existingId = keys.titles.getOrDefault(title, staged.titles.get(title));
+            if (existingId != null) {
+                addedCopies.merge(existingId, req.getTotalCopies(), Integer::sum);
+                counted.merged++;
+                continue;
+            }
+
+            Book book = Book.builder()
+                    .title(title)
+                    .author(req.getAuthor())
+                    .category(req.getCategory())
+                    .isbn(isbn)
+                    .totalCopies(req.getTotalCopies())
+                    .availableCopies(req.getTotalCopies())
+                    .isAvailable(true)
+                    .deleted(false)
+                    .build();
+            entityManager.persist(book);
+            inserted.add(book);
+            staged.titles.put(title, book.getId());
+            if (StringUtils.hasText(isbn)) staged.isbns.add(isbn);
+            counted.inserted++;
+        }
+
+        if (!addedCopies.isEmpty()) {
+            for (Book book : bookRepository.findAllById(addedCopies.keySet())) {
+                int added = addedCopies.get(book.getId());
+                book.setTotalCopies(book.getTotalCopies() + added);
+                book.setAvailableCopies(book.getAvailableCopies() + added);
+                book.setAvailable(book.getAvailableCopies() > 0);
+                searchIndex.indexAfterCommit(book);
+                caches.books().invalidateAfterCommit(book.getId());
+                journalService.record(JournalEventType.BOOK_UPDATED, book.getId(), bookService.toDto(book));
+            }
+        }
+        for (Book book : inserted) {
+            searchIndex.indexAfterCommit(book);
+            journalService.record(JournalEventType.BOOK_CREATED, book.getId(), bookService.toDto(book));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Preload ISBNs and titles of the live catalog so rows are deduped without per-row queries
+    private Keys loadKeys() {
+        Keys keys = new Keys();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<BookKey> stream = bookRepository.streamActiveKeys()) {
+                stream.forEach(k -> {
+                    keys.titles.putIfAbsent(k.getTitle(), k.getId());
+                    if (StringUtils.hasText(k.getIsbn())) keys.isbns.add(k.getIsbn());
+                });
+            }
+        });
+        log.info("Book import loaded {} existing titles and {} ISBNs", keys.titles.size(), keys.isbns.size());
+        return keys;
+    }
+
+    private BookRequest parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, BookRequest.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private void validate(BookRequest req) {
+        if (req == null) throw new IllegalArgumentException("Row is empty");
+        if (!StringUtils.hasText(req.getTitle())) throw new IllegalArgumentException("Title must be provided");
+        if (req.getTotalCopies() <= 0) throw new IllegalArgumentException("Total copies must be at least 1");
+    }
+
+    private void logProgress(Progress progress, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Book import progress: {} rows read, {} inserted, {} merged, {} duplicates, {} rejected, {} failed ({} rows/s)",
+                progress.rowsRead, progress.inserted, progress.merged, progress.duplicates, progress.rejected, progress.failed,
+                Math.round(progress.rowsRead / Math.max(seconds, 0.001)));
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        BookRequest parse(String line);
+    }
+
+    /**
+     * Header-driven CSV rows (title, author, category, isbn, totalCopies) with RFC 4180 quoting on one line
+     */
+    private static final class CsvRowParser implements RowParser {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvRowParser(String header) {
+            if (header == null) throw new IllegalArgumentException("CSV header row is missing");
+            List<String> names = split(header.replace("\uFEFF", ""));
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title")) throw new IllegalArgumentException("CSV header must contain a title column");
+        }
+
+        @Override
+        public BookRequest parse(String line) {
+            List<String> values = split(line);
+            BookRequest req = new BookRequest();
+            req.setTitle(value(values, "title"));
+            req.setAuthor(value(values, "author"));
+            req.setCategory(value(values, "category"));
+            req.setIsbn(value(values, "isbn"));
+            String copies = value(values, "totalcopies");
+            try {
+                req.setTotalCopies(copies != null ? Integer.parseInt(copies.trim()) : 0);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid totalCopies: " + copies);
+            }
+            return req;
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) return null;
+            String value = values.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+
+    private static final class Keys {
+        final Map<String, UUID> titles = new HashMap<>();
+        final Set<String> isbns = new HashSet<>();
+    }
+
+    private static final class Progress {
+        long rowsRead;
+        long inserted;
+        long merged;
+        long duplicates;
+        long rejected;
+        long failed;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(error);
+        }
+
+        void fail(int rows, String error) {
+            failed += rows;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(error);
+        }
+    }
+}
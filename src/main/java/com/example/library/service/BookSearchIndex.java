@@ -0,0 +1,348 @@
+package com.example.library.service;
+
+import com.example.library.entity.Book;
+import com.example.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book title, author and ISBN.
+ * Built from the books table at startup and kept current by {@link BookService} writes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    // Field weights; an exact token match counts double a prefix match
+    private static final int ISBN_WEIGHT = 8;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSION = 256;
+    private static final int MAX_CANDIDATES = 10_000;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ISBN_LIKE = Pattern.compile("[0-9Xx\\- ]+");
+    private static final Pattern NON_ISBN_CHARS = Pattern.compile("[^0-9Xx]");
+
+    private final BookRepository bookRepository;
+
+    // Writers hold this object's monitor; searches read whichever index is current
+    private volatile Index index = new Index();
+    // Changes committed while a rebuild is loading, replayed onto the new index before the swap; guarded by this
+    private List<Consumer<Index>> changesDuringRebuild;
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Load all non-deleted books once the application has started.
+     * The new index is built off to the side, so searches keep using the complete previous one until the swap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                Index fresh = new Index();
+                List<Book> batch = bookRepository.findByDeletedFalseOrderByIdAsc(PageRequest.of(0, REBUILD_BATCH_SIZE));
+                while (!batch.isEmpty()) {
+                    batch.forEach(b -> fresh.put(Document.of(b)));
+                    UUID lastId = batch.get(batch.size() - 1).getId();
+                    batch = bookRepository.findByDeletedFalseAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                }
+
+                // A change committed after its row was loaded must win over the older copy read above
+                synchronized (this) {
+                    changesDuringRebuild.forEach(change -> change.accept(fresh));
+                    index = fresh;
+                }
+                log.info("Book search index built: {} books, {} tokens in {} ms",
+                        fresh.documents.size(), fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Index (or re-index) a book once the surrounding transaction commits
+     */
+    public void indexAfterCommit(Book book) {
+        Document doc = Document.of(book);
+        afterCommit(() -> apply(doc.deleted() ? i -> i.remove(doc.id()) : i -> i.put(doc)));
+    }
+
+    /**
+     * Drop a book from the index once the surrounding transaction commits
+     */
+    public void removeAfterCommit(UUID id) {
+        afterCommit(() -> apply(i -> i.remove(id)));
+    }
+
+    /**
+     * Ranked ids of books matching every query term; the last term also matches as a prefix.
+     * Candidates come from the term matching the fewest books and the other terms are looked up per candidate.
+     * Scoring stops once no remaining candidate can beat the current top results, so books tied with the last
+     * result are taken in index order. It also stops after {@value #MAX_CANDIDATES} candidates, which only cuts
+     * short a query whose most selective term is very common but rarely matches together with the others.
+     */
+    public List<UUID> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        ConcurrentSkipListMap<String, Postings> postings = index.postings;
+        List<List<Source>> matches = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            List<Source> sources = sources(postings, terms.get(i), i == terms.size() - 1);
+            if (sources.isEmpty()) return List.of();
+            matches.add(sources);
+        }
+        int driverIndex = 0;
+        for (int i = 1; i < matches.size(); i++) {
+            if (matchCount(matches.get(i)) < matchCount(matches.get(driverIndex))) driverIndex = i;
+        }
+        List<Source> driver = matches.remove(driverIndex);
+        int othersBest = matches.stream().mapToInt(m -> m.get(0).score()).sum();
+
+        // Min-heap on score, ties among the scored candidates broken by id
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1,
+                Comparator.comparingInt(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder()));
+        Set<UUID> seen = new HashSet<>();
+        scoring:
+        for (Source source : driver) {
+            for (UUID id : source.ids()) {
+                // Sources are in descending score order, so no later candidate can beat the top results
+                if (top.size() == limit && source.score() + othersBest <= top.peek().score()) break scoring;
+                if (seen.size() >= MAX_CANDIDATES) break scoring;
+                if (!seen.add(id)) continue;
+                int score = source.score();
+                for (List<Source> other : matches) {
+                    int termScore = score(other, id);
+                    if (termScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += termScore;
+                }
+                if (score == 0) continue;
+                top.offer(new Hit(id, score));
+                if (top.size() > limit) top.poll();
+            }
+        }
+
+        List<UUID> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) result.add(top.poll().id());
+        Collections.reverse(result);
+        return result;
+    }
+
+    public int size() {
+        return index.documents.size();
+    }
+
+    // Id sets that can match a term, best score first; an exact token match counts double a prefix match
+    private List<Source> sources(ConcurrentSkipListMap<String, Postings> postings, String term, boolean prefix) {
+        List<Source> sources = new ArrayList<>();
+        Postings exact = postings.get(term);
+        if (exact != null) exact.addSources(sources, 2);
+        if (prefix && term.length() >= MIN_PREFIX_LENGTH) {
+            for (Postings expansion : expansions(postings, term)) expansion.addSources(sources, 1);
+        }
+        sources.sort(Comparator.comparingInt(Source::score).reversed());
+        return sources;
+    }
+
+    // Longer tokens starting with the prefix; past the cap only the completions found in the most books are kept
+    private List<Postings> expansions(ConcurrentSkipListMap<String, Postings> postings, String prefix) {
+        PriorityQueue<Expansion> kept = new PriorityQueue<>(Comparator.comparingInt(Expansion::books));
+        for (Postings candidate : postings.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values()) {
+            kept.offer(new Expansion(candidate, candidate.size()));
+            if (kept.size() > MAX_PREFIX_EXPANSION) kept.poll();
+        }
+        List<Postings> result = new ArrayList<>(kept.size());
+        kept.forEach(e -> result.add(e.postings()));
+        return result;
+    }
+
+    private static int score(List<Source> sources, UUID id) {
+        for (Source source : sources) {
+            if (source.ids().contains(id)) return source.score();
+        }
+        return 0;
+    }
+
+    private static long matchCount(List<Source> sources) {
+        long count = 0;
+        for (Source source : sources) count += source.ids().size();
+        return count;
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (changesDuringRebuild != null) changesDuringRebuild.add(change);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Lower-case alphanumeric runs; ISBN-like input with dashes collapses to one token
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String isbn = normalizeIsbn(text);
+        if (isbn.length() >= 10 && ISBN_LIKE.matcher(text.trim()).matches()) return List.of(isbn);
+
+        List<String> tokens = new ArrayList<>();
+        for (String part : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!part.isEmpty() && !tokens.contains(part)) tokens.add(part);
+        }
+        return tokens;
+    }
+
+    private static String normalizeIsbn(String isbn) {
+        if (isbn == null) return "";
+        return NON_ISBN_CHARS.matcher(isbn).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Postings and per-book tokens; mutated only by the rebuild that creates it or under the outer monitor
+    private static final class Index {
+        final ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+        // book id -> tokens currently indexed for it, used to unindex on update
+        final Map<UUID, Set<String>> documents = new ConcurrentHashMap<>();
+
+        void put(Document doc) {
+            remove(doc.id());
+
+            Map<String, Field> tokens = new HashMap<>();
+            tokenize(doc.title()).forEach(t -> tokens.merge(t, Field.TITLE, Field::best));
+            tokenize(doc.author()).forEach(t -> tokens.merge(t, Field.AUTHOR, Field::best));
+            String isbn = normalizeIsbn(doc.isbn());
+            if (!isbn.isEmpty()) tokens.merge(isbn, Field.ISBN, Field::best);
+
+            tokens.forEach((token, field) -> postings.computeIfAbsent(token, k -> new Postings()).add(doc.id(), field));
+            documents.put(doc.id(), new HashSet<>(tokens.keySet()));
+        }
+
+        void remove(UUID id) {
+            Set<String> tokens = documents.remove(id);
+            if (tokens == null) return;
+            for (String token : tokens) {
+                postings.computeIfPresent(token, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    // Fields in descending weight order
+    private enum Field {
+        ISBN(ISBN_WEIGHT), TITLE(TITLE_WEIGHT), AUTHOR(AUTHOR_WEIGHT);
+
+        final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+
+        static Field best(Field a, Field b) {
+            return a.weight >= b.weight ? a : b;
+        }
+    }
+
+    // Books containing one token, split by the best field it appears in; a set is created on first use
+    private static final class Postings {
+        private final AtomicReferenceArray<Set<UUID>> byField = new AtomicReferenceArray<>(Field.values().length);
+
+        void add(UUID id, Field field) {
+            Set<UUID> ids = byField.get(field.ordinal());
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                byField.set(field.ordinal(), ids);
+            }
+            ids.add(id);
+        }
+
+        void remove(UUID id) {
+            for (int i = 0; i < byField.length(); i++) {
+                Set<UUID> ids = byField.get(i);
+                if (ids != null) ids.remove(id);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < byField.length(); i++) {
+                Set<UUID> ids = byField.get(i);
+                if (ids != null) size += ids.size();
+            }
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+
+        void addSources(List<Source> sources, int multiplier) {
+            for (Field field : Field.values()) {
+                Set<UUID> ids = byField.get(field.ordinal());
+                if (ids != null && !ids.isEmpty()) sources.add(new Source(ids, field.weight * multiplier));
+            }
+        }
+    }
+
+    private record Source(Set<UUID> ids, int score) {
+    }
+
+    private record Expansion(Postings postings, int books) {
+    }
+
+    private record Hit(UUID id, int score) {
+    }
+
+    // Immutable snapshot of the indexed fields, safe to apply after commit
+    private record Document(UUID id, String title, String author, String isbn, boolean deleted) {
+        static Document of(Book b) {
+            return new Document(b.getId(), b.getTitle(), b.getAuthor(), b.getIsbn(), b.isDeleted());
+        }
+    }
+}
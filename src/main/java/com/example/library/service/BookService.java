@@ -2,31 +2,59 @@ package com.example.library.service;
 
 import com.example.library.dto.BookRequest;
 import com.example.library.dto.BookResponse;
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Book;
+import com.example.library.entity.JournalEventType;
 import com.example.library.exception.DuplicateResourceException;
 import com.example.library.exception.ResourceNotFoundException;
 import com.example.library.repository.BookRepository;
+import com.example.library.repository.BookSpecifications;
+import com.example.library.repository.BorrowerRepository;
+import com.example.library.routing.ReplicaRouting;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BookService {
 
+    // Served by the (deleted[, category][, is_available], field) indexes on books; copy counts are not indexed
+    private static final Set<String> SORTABLE_FIELDS = Set.of("title", "author");
+    // Keyset paging also needs a key that does not move between page requests, so copy counts never qualify
+    private static final Set<String> KEYSET_SORTABLE_FIELDS = Set.of("title", "author");
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final BookSearchIndex searchIndex;
+    private final LookupCaches caches;
+    private final JournalService journalService;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BorrowerRepository borrowerRepository, BookSearchIndex searchIndex,
+                       LookupCaches caches, JournalService journalService) {
         this.bookRepository = bookRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.searchIndex = searchIndex;
+        this.caches = caches;
+        this.journalService = journalService;
     }
 
     @Transactional
@@ -73,8 +101,14 @@ public class BookService {
             }
 
             // Save the book in database
+            boolean created = existing.isEmpty();
             Book saved = bookRepository.save(book);
-            return toDto(saved);
+            searchIndex.indexAfterCommit(saved);
+            caches.books().invalidateAfterCommit(saved.getId());
+            BookResponse response = toDto(saved);
+            journalService.record(created ? JournalEventType.BOOK_CREATED : JournalEventType.BOOK_UPDATED,
+                    saved.getId(), response);
+            return response;
 
         } catch (DataIntegrityViolationException ex) {
             // Handle unique constraint violations
@@ -86,52 +120,96 @@ public class BookService {
         }
     }
 
+    // Read-only catalog paths are served by the replica when one is configured
+    @Transactional(readOnly = true)
     public Page<BookResponse> list(String category, Boolean available, int page, int size, String sortBy) {
         // Apply default pagination and sorting values
         if (page < 0) page = 0;
         if (size <= 0) size = 10;
+        if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
         if (!StringUtils.hasText(sortBy)) sortBy = "title";
 
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(sortBy));
+        // Only allow sorting on indexed fields (see SORTABLE_FIELDS); id keeps page boundaries stable
+        String sortKey = resolveSortKey(sortBy, SORTABLE_FIELDS);
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(sortKey).and(Sort.by("id")));
 
-        List<Book> filteredBooks;
+        // Database applies filters, LIMIT/OFFSET and returns the total count
+        return bookRepository.findAll(catalogFilter(category, available), pageRequest).map(this::toDto);
+    }
 
-        // Filter by category
-        if (StringUtils.hasText(category)) {
-            filteredBooks = bookRepository.findByCategoryAndDeletedFalse(category.trim());
-        } else {
-            filteredBooks = bookRepository.findAll().stream()
-                    .filter(b -> !b.isDeleted())
-                    .collect(Collectors.toList());
+    /**
+     * Keyset variant of {@link #list}: cost per page stays constant however deep the client walks
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookResponse> listByCursor(String category, Boolean available, String cursor, int size, String sortBy) {
+        if (size <= 0) size = 10;
+        if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
+        if (!StringUtils.hasText(sortBy)) sortBy = "title";
+
+        String sortKey = resolveSortKey(sortBy, KEYSET_SORTABLE_FIELDS);
+        Specification<Book> spec = catalogFilter(category, available);
+
+        // Continue strictly after the last row of the previous page
+        if (StringUtils.hasText(cursor)) {
+            Cursor position = Cursor.decode(cursor, sortKey);
+            spec = spec.and(BookSpecifications.after(sortKey, position.value(), position.id()));
         }
 
-        // Filter by availability
-        if (available != null) {
-            filteredBooks = filteredBooks.stream()
-                    .filter(b -> available.equals(b.isAvailable()))
-                    .collect(Collectors.toList());
+        // Fetch one extra row to know whether another page exists, without a count query.
+        // MySQL (and H2) put books without an author first in ascending order, which the keyset predicate expects.
+        Sort sort = Sort.by(sortKey).and(Sort.by("id"));
+        int limit = size + 1;
+        List<Book> rows = bookRepository.findBy(spec, q -> q.sortBy(sort).limit(limit).all());
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+
+        String nextCursor = null;
+        if (hasNext) {
+            Book last = rows.get(rows.size() - 1);
+            nextCursor = new Cursor(sortKey, keysetValue(last, sortKey), last.getId()).encode();
         }
 
-        // Handle pagination manually
-        int start = Math.min((int) pageRequest.getOffset(), filteredBooks.size());
-        int end = Math.min(start + pageRequest.getPageSize(), filteredBooks.size());
+        return CursorPage.<BookResponse>builder()
+                .content(rows.stream().map(this::toDto).collect(Collectors.toList()))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-        // Convert entity list to response list
-        List<BookResponse> content = filteredBooks.subList(start, end).stream()
+    /**
+     * Ranked full-text search over title, author and ISBN, served from the in-memory index
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> search(String query, int limit) {
+        if (!StringUtils.hasText(query)) throw new IllegalArgumentException("Search query must be provided");
+        if (limit <= 0) limit = 10;
+        if (limit > MAX_SEARCH_RESULTS) limit = MAX_SEARCH_RESULTS;
+
+        List<UUID> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) return List.of();
+
+        // Load current copy counts by primary key, then restore ranking order
+        Map<UUID, Book> byId = bookRepository.findAllById(ids).stream()
+                .filter(b -> !b.isDeleted())
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::toDto)
                 .collect(Collectors.toList());
-
-        return new PageImpl<>(content, pageRequest, filteredBooks.size());
     }
 
     public BookResponse getById(UUID id) {
         // Check for valid ID
         if (id == null) throw new IllegalArgumentException("Book ID must be provided");
 
-        // Find book by ID or throw exception if not found
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        return toDto(book);
+        // Serve from the lookup cache, falling back to the primary on a miss (a replica copy could cache stale counts)
+        BookResponse book = caches.books().get(id,
+                key -> ReplicaRouting.onPrimary(() -> bookRepository.findById(key).map(this::toDto).orElse(null)));
+        if (book == null) throw new ResourceNotFoundException("Book not found with id: " + id);
+        return book;
     }
 
     @Transactional
@@ -143,8 +221,11 @@ public class BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
 
-        // Update fields if provided
-        if (StringUtils.hasText(req.getTitle())) book.setTitle(req.getTitle().trim());
+        // Update fields if provided; a new title invalidates the cached histories that show the old one
+        if (StringUtils.hasText(req.getTitle()) && !req.getTitle().trim().equals(book.getTitle())) {
+            book.setTitle(req.getTitle().trim());
+            borrowerRepository.bumpHistoryVersionForBook(id);
+        }
         if (StringUtils.hasText(req.getAuthor())) book.setAuthor(req.getAuthor());
         if (StringUtils.hasText(req.getCategory())) book.setCategory(req.getCategory());
         if (StringUtils.hasText(req.getIsbn())) book.setIsbn(req.getIsbn().trim());
@@ -161,7 +242,11 @@ public class BookService {
 
         // Save and return updated record
         Book updated = bookRepository.save(book);
-        return toDto(updated);
+        searchIndex.indexAfterCommit(updated);
+        caches.books().invalidateAfterCommit(id);
+        BookResponse response = toDto(updated);
+        journalService.record(JournalEventType.BOOK_UPDATED, id, response);
+        return response;
     }
 
     @Transactional
@@ -176,10 +261,37 @@ public class BookService {
         // Mark book as deleted instead of removing from DB
         book.setDeleted(true);
         bookRepository.save(book);
+        searchIndex.removeAfterCommit(id);
+        caches.books().invalidateAfterCommit(id);
+        journalService.record(JournalEventType.BOOK_DELETED, id, toDto(book));
+    }
+
+    // Build SQL filters shared by offset and keyset listing
+    private Specification<Book> catalogFilter(String category, Boolean available) {
+        Specification<Book> spec = BookSpecifications.notDeleted();
+        if (StringUtils.hasText(category)) {
+            spec = spec.and(BookSpecifications.hasCategory(category.trim()));
+        }
+        if (available != null) {
+            spec = spec.and(BookSpecifications.isAvailable(available));
+        }
+        return spec;
+    }
+
+    private String resolveSortKey(String sortBy, Set<String> allowed) {
+        String sortKey = sortBy.trim();
+        if (!allowed.contains(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortKey + ". Allowed: " + allowed);
+        }
+        return sortKey;
+    }
+
+    private String keysetValue(Book b, String sortKey) {
+        return "author".equals(sortKey) ? b.getAuthor() : b.getTitle();
     }
 
     // Convert Book entity to BookResponse DTO
-    private BookResponse toDto(Book b) {
+    BookResponse toDto(Book b) {
         return BookResponse.builder()
                 .id(b.getId())
                 .title(b.getTitle())
@@ -188,6 +300,7 @@ public class BookService {
                 .available(b.isAvailable())
                 .totalCopies(b.getTotalCopies())
                 .availableCopies(b.getAvailableCopies())
+                .version(b.getVersion())
                 .build();
     }
 
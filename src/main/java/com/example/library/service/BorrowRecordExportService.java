@@ -0,0 +1,121 @@
+package com.example.library.service;
+
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.repository.BorrowRecordRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes borrow records straight from a database cursor to an output stream.
+ * Memory use is bounded by the JDBC fetch size and the writer buffer, not by the number of rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class BorrowRecordExportService {
+
+    public enum Scope { ACTIVE, OVERDUE, HISTORY }
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final String CSV_HEADER =
+            "id,bookId,bookTitle,borrowerId,borrowerName,borrowDate,dueDate,returnDate,fineAmount";
+
+    private final BorrowRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Stream the selected records to {@code out}; returns the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Scope scope, UUID borrowerId, Format format, OutputStream out) {
+        try (Stream<BorrowRecordResponse> rows = open(scope, borrowerId)) {
+            return format == Format.CSV ? writeCsv(rows.iterator(), out) : writeNdjson(rows.iterator(), out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write export: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Stream<BorrowRecordResponse> open(Scope scope, UUID borrowerId) {
+        return switch (scope) {
+            case ACTIVE -> recordRepository.streamActive();
+            case OVERDUE -> recordRepository.streamOverdue(LocalDate.now());
+            case HISTORY -> {
+                if (borrowerId == null) throw new IllegalArgumentException("Borrower ID must be provided for history export");
+                yield recordRepository.streamHistory(borrowerId);
+            }
+        };
+    }
+
+    private long writeNdjson(Iterator<BorrowRecordResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                if (++count % FLUSH_EVERY_ROWS == 0) writer.flush();
+            }
+        }
+        if (count > 0) out.write('\n');
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<BorrowRecordResponse> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            BorrowRecordResponse r = rows.next();
+            writer.write(String.valueOf(r.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(r.getBookId()));
+            writer.write(',');
+            writer.write(csv(r.getBookTitle()));
+            writer.write(',');
+            writer.write(String.valueOf(r.getBorrowerId()));
+            writer.write(',');
+            writer.write(csv(r.getBorrowerName()));
+            writer.write(',');
+            writer.write(r.getBorrowDate() != null ? r.getBorrowDate().toString() : "");
+            writer.write(',');
+            writer.write(r.getDueDate() != null ? r.getDueDate().toString() : "");
+            writer.write(',');
+            writer.write(r.getReturnDate() != null ? r.getReturnDate().toString() : "");
+            writer.write(',');
+            writer.write(String.valueOf(r.getFineAmount() != null ? r.getFineAmount() : 0.0));
+            writer.write('\n');
+            if (++count % FLUSH_EVERY_ROWS == 0) writer.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Quote fields containing separators, quotes or line breaks (RFC 4180)
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
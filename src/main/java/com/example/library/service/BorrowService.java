@@ -1,73 +1,105 @@
 package com.example.library.service;
 
+import com.example.library.dto.BatchItemResponse;
+import com.example.library.dto.BookResponse;
 import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.BorrowerResponse;
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Book;
 import com.example.library.entity.BorrowRecord;
 import com.example.library.entity.Borrower;
-import com.example.library.entity.FinePolicy;
+import com.example.library.entity.JournalEventType;
 import com.example.library.exception.ResourceNotFoundException;
 import com.example.library.repository.BookRepository;
 import com.example.library.repository.BorrowRecordRepository;
 import com.example.library.repository.BorrowerRepository;
-import com.example.library.repository.FinePolicyRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 @RequiredArgsConstructor
 public class BorrowService {
 
     private final BookRepository bookRepository;
     private final BorrowerRepository borrowerRepository;
     private final BorrowRecordRepository recordRepository;
-    private final FinePolicyRepository finePolicyRepository;
+    private final FinePolicyService finePolicyService;
+    private final BookService bookService;
+    private final BorrowerService borrowerService;
+    private final HoldService holdService;
+    private final JournalService journalService;
+    private final LookupCaches caches;
 
-    private static final double DEFAULT_FINE_PER_DAY = 10.0;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 50;
+
+    // Open-ended due-date windows are clamped to this range
+    private static final LocalDate MIN_DUE_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DUE_DATE = LocalDate.of(9999, 12, 31);
+    private static final UUID FIRST_ID = new UUID(0, 0);
 
     /**
      * Borrow a book for a borrower
      */
     @Transactional
-    public BorrowRecord borrowBook(UUID borrowerId, UUID bookId) {
-        Borrower borrower = borrowerRepository.findById(borrowerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
-
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-
-        long activeBorrowCount = recordRepository.findByBorrowerId(borrowerId).stream()
-                .filter(r -> r.getReturnDate() == null)
-                .count();
+    public BorrowRecordResponse borrowBook(UUID borrowerId, UUID bookId) {
+        // Borrower and book details come from the lookup caches; only the counters hit the database.
+        // The book is looked up before this transaction changes its copy count, so a miss caches the committed row.
+        BorrowerResponse borrower = borrowerService.getById(borrowerId);
+        BookResponse book = bookService.getById(bookId);
 
-        if (activeBorrowCount >= borrower.getMaxBorrowLimit()) {
+        // Reserve a loan slot against the maintained counter instead of counting the full history
+        if (borrowerRepository.reserveActiveLoans(borrowerId, 1) == 0) {
             throw new IllegalStateException("Borrow limit exceeded for borrower: " + borrower.getName());
         }
 
-        if (book.getAvailableCopies() < 1) {
-            throw new IllegalStateException("No available copies for book: " + book.getTitle());
+        // Pick up a copy set aside for this borrower's hold, else claim one from the shelf
+        if (!claimCopy(borrowerId, bookId)) {
+            throw new IllegalStateException("No available copies for book: " + book.getTitle() + "; place a hold instead");
         }
 
-        // Update book availability
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        book.setAvailable(book.getAvailableCopies() > 0);
-        bookRepository.save(book);
-
-        BorrowRecord record = BorrowRecord.builder()
-                .book(book)
-                .borrower(borrower)
+        // References are enough for the foreign keys; no extra selects
+        BorrowRecord record = recordRepository.save(BorrowRecord.builder()
+                .book(bookRepository.getReferenceById(bookId))
+                .borrower(borrowerRepository.getReferenceById(borrowerId))
                 .borrowDate(LocalDate.now())
                 .dueDate(LocalDate.now().plusDays(14))
                 .fineAmount(0.0) // Initialize fine
-                .build();
+                .build());
 
-        return recordRepository.save(record);
+        BorrowRecordResponse response = BorrowRecordResponse.builder()
+                .id(record.getId())
+                .bookId(bookId)
+                .bookTitle(book.getTitle())
+                .borrowerId(borrowerId)
+                .borrowerName(borrower.getName())
+                .borrowDate(record.getBorrowDate())
+                .dueDate(record.getDueDate())
+                .returnDate(null)
+                .fineAmount(record.getFineAmount())
+                .build();
+        journalService.record(JournalEventType.BOOK_BORROWED, record.getId(), response);
+        return response;
     }
 
     /**
@@ -75,53 +107,149 @@ public class BorrowService {
      */
     @Transactional
     public BorrowRecord returnBook(UUID borrowerId, UUID bookId) {
-        BorrowRecord record = recordRepository.findByBorrowerId(borrowerId).stream()
-                .filter(r -> r.getBook().getId().equals(bookId) && r.getReturnDate() == null)
-                .findFirst()
+        BorrowRecord record = recordRepository.findOpenRecord(borrowerId, bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Active borrow record not found for book id: " + bookId));
 
-        record.setReturnDate(LocalDate.now());
+        LocalDate returnDate = LocalDate.now();
+        double fineAmount = calculateFine(record, returnDate);
 
-        // Fine calculation
-        double fineAmount = 0.0;
-        if (record.getReturnDate().isAfter(record.getDueDate())) {
-            long daysLate = ChronoUnit.DAYS.between(record.getDueDate(), record.getReturnDate());
-            double finePerDay = getFinePerDayForCategory(record.getBook().getCategory());
-            fineAmount = daysLate * finePerDay;
+        // Close the record with a conditional UPDATE so a concurrent duplicate return cannot release twice
+        if (recordRepository.markReturned(record.getId(), returnDate, fineAmount) == 0) {
+            throw new ResourceNotFoundException("Active borrow record not found for book id: " + bookId);
         }
+        record.setReturnDate(returnDate);
         record.setFineAmount(fineAmount);
 
-        // Update book availability
-        Book book = record.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        book.setAvailable(true);
-        bookRepository.save(book);
+        // The copy goes to the next hold in line, or back to the shelf atomically
+        holdService.releaseCopy(bookId);
+        borrowerRepository.releaseActiveLoans(borrowerId, 1);
+        journalService.record(JournalEventType.BOOK_RETURNED, record.getId(), toDto(record));
 
-        return recordRepository.save(record);
+        return record;
     }
 
     /**
-     * Get fine per day for a book category
+     * Borrow several books in one transaction; items that cannot be borrowed are reported, not thrown
      */
-    private double getFinePerDayForCategory(String category) {
-        if (category == null) return DEFAULT_FINE_PER_DAY;
+    @Transactional
+    public List<BatchItemResponse> borrowBooks(UUID borrowerId, List<UUID> bookIds) {
+        validateBatch(bookIds);
+        Borrower borrower = borrowerRepository.findById(borrowerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
+
+        // One query for every requested book
+        Map<UUID, Book> books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        // Limit is checked once against the counter snapshot, then reserved atomically below
+        int freeSlots = Math.max(0, borrower.getMaxBorrowLimit() - borrower.getActiveLoans());
+
+        BatchItemResponse[] results = new BatchItemResponse[bookIds.size()];
+        List<BorrowRecord> records = new ArrayList<>();
+        List<Integer> recordSlots = new ArrayList<>();
+        LocalDate today = LocalDate.now();
 
-        return finePolicyRepository.findAll().stream()
-                .filter(p -> category.equalsIgnoreCase(p.getCategory()))
-                .map(FinePolicy::getFinePerDay)
-                .findFirst()
-                .orElse(DEFAULT_FINE_PER_DAY);
+        for (int i = 0; i < bookIds.size(); i++) {
+            UUID bookId = bookIds.get(i);
+            Book book = books.get(bookId);
+            if (book == null) {
+                results[i] = BatchItemResponse.failure(bookId, "Book not found with id: " + bookId);
+            } else if (records.size() >= freeSlots) {
+                results[i] = BatchItemResponse.failure(bookId, "Borrow limit exceeded for borrower: " + borrower.getName());
+            } else if (!claimCopy(borrowerId, bookId)) {
+                results[i] = BatchItemResponse.failure(bookId, "No available copies for book: " + book.getTitle());
+            } else {
+                records.add(BorrowRecord.builder()
+                        .book(book)
+                        .borrower(borrower)
+                        .borrowDate(today)
+                        .dueDate(today.plusDays(14))
+                        .fineAmount(0.0)
+                        .build());
+                recordSlots.add(i);
+            }
+        }
+
+        if (!records.isEmpty()) {
+            // A concurrent borrow took the slots we counted on; undo the whole batch
+            if (borrowerRepository.reserveActiveLoans(borrowerId, records.size()) == 0) {
+                throw new IllegalStateException("Borrow limit exceeded for borrower: " + borrower.getName());
+            }
+            // Inserted with JDBC batching (ids are generated client side)
+            List<BorrowRecord> saved = recordRepository.saveAll(records);
+            for (int j = 0; j < saved.size(); j++) {
+                int slot = recordSlots.get(j);
+                BorrowRecordResponse response = toDto(saved.get(j));
+                journalService.record(JournalEventType.BOOK_BORROWED, response.getId(), response);
+                results[slot] = BatchItemResponse.success(bookIds.get(slot), "Book borrowed successfully", response);
+            }
+        }
+
+        return Arrays.asList(results);
     }
 
     /**
-     * List all active borrow records
+     * Return several books in one transaction; items without an open record are reported, not thrown
      */
-    @Transactional(readOnly = true)
-    public List<BorrowRecordResponse> getActiveRecords() {
-        return recordRepository.findByReturnDateIsNull()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    @Transactional
+    public List<BatchItemResponse> returnBooks(UUID borrowerId, List<UUID> bookIds) {
+        validateBatch(bookIds);
+
+        // One query for all open records of the requested books
+        Map<UUID, Deque<BorrowRecord>> open = new HashMap<>();
+        for (BorrowRecord r : recordRepository.findOpenRecords(borrowerId, bookIds)) {
+            open.computeIfAbsent(r.getBook().getId(), k -> new ArrayDeque<>()).add(r);
+        }
+
+        List<BatchItemResponse> results = new ArrayList<>(bookIds.size());
+        LocalDate returnDate = LocalDate.now();
+        int returned = 0;
+
+        for (UUID bookId : bookIds) {
+            Deque<BorrowRecord> candidates = open.get(bookId);
+            BorrowRecord record = candidates != null ? candidates.poll() : null;
+            if (record == null) {
+                results.add(BatchItemResponse.failure(bookId, "Active borrow record not found for book id: " + bookId));
+                continue;
+            }
+
+            double fineAmount = calculateFine(record, returnDate);
+            if (recordRepository.markReturned(record.getId(), returnDate, fineAmount) == 0) {
+                results.add(BatchItemResponse.failure(bookId, "Active borrow record not found for book id: " + bookId));
+                continue;
+            }
+            record.setReturnDate(returnDate);
+            record.setFineAmount(fineAmount);
+            holdService.releaseCopy(bookId);
+            returned++;
+            BorrowRecordResponse response = toDto(record);
+            journalService.record(JournalEventType.BOOK_RETURNED, record.getId(), response);
+            results.add(BatchItemResponse.success(bookId, "Book returned successfully", response));
+        }
+
+        if (returned > 0) borrowerRepository.releaseActiveLoans(borrowerId, returned);
+        return results;
+    }
+
+    // Claim with a single conditional UPDATE either way; concurrent borrowers cannot oversell
+    private boolean claimCopy(UUID borrowerId, UUID bookId) {
+        if (holdService.claimReady(borrowerId, bookId)) return true;
+        if (bookRepository.decrementAvailableCopies(bookId) == 0) return false;
+        caches.books().invalidateAfterCommit(bookId);
+        return true;
+    }
+
+    /**
+     * Fine owed when returning on the given date, using the cached category rate
+     */
+    private double calculateFine(BorrowRecord record, LocalDate returnDate) {
+        return finePolicyService.fineFor(record.getBook().getCategory(), record.getDueDate(), returnDate);
+    }
+
+    private void validateBatch(List<UUID> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) throw new IllegalArgumentException("At least one book ID must be provided");
+        if (bookIds.size() > MAX_BATCH_SIZE) throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " books per batch");
+        if (bookIds.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException("Book IDs must not be null");
     }
 
     /**
@@ -129,22 +257,109 @@ public class BorrowService {
      */
     @Transactional(readOnly = true)
     public List<BorrowRecordResponse> getBorrowHistory(UUID borrowerId) {
-        return recordRepository.findByBorrowerId(borrowerId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return recordRepository.findHistoryResponses(borrowerId);
+    }
+
+    /**
+     * Version of a borrower's history, for conditional GETs; read before the history itself so a concurrent change
+     * can only make the ETag older than the body, never newer
+     */
+    @Transactional(readOnly = true)
+    public long getHistoryVersion(UUID borrowerId) {
+        return borrowerRepository.findHistoryVersion(borrowerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowerId));
+    }
+
+    /**
+     * Keyset page of a borrower's history, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BorrowRecordResponse> getBorrowHistoryPage(UUID borrowerId, String cursor, int size) {
+        int limit = normalizePageSize(size) + 1;
+        List<BorrowRecordResponse> rows;
+        if (StringUtils.hasText(cursor)) {
+            Cursor position = Cursor.decode(cursor, "borrowDate");
+            rows = recordRepository.findHistoryAfter(borrowerId, parseDateCursorValue(position.value()),
+                    position.id(), PageRequest.of(0, limit));
+        } else {
+            rows = recordRepository.findHistoryPage(borrowerId, PageRequest.of(0, limit));
+        }
+        return toCursorPage(rows, limit - 1, "borrowDate", BorrowRecordResponse::getBorrowDate);
+    }
+
+    /**
+     * Keyset page of unreturned records due in [dueFrom, dueTo), earliest due first; every filter is optional
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BorrowRecordResponse> getActiveRecordsPage(LocalDate dueFrom, LocalDate dueTo, String category,
+                                                                 UUID borrowerId, String cursor, int size) {
+        return openRecordsPage(dueFrom, dueTo, category, borrowerId, cursor, size);
     }
 
     /**
-     * List overdue borrow records
+     * Keyset page of overdue records, most overdue first; the window is capped at today
      */
     @Transactional(readOnly = true)
-    public List<BorrowRecordResponse> getOverdueRecords() {
+    public CursorPage<BorrowRecordResponse> getOverdueRecordsPage(LocalDate dueFrom, LocalDate dueTo, String category,
+                                                                  UUID borrowerId, String cursor, int size) {
         LocalDate today = LocalDate.now();
-        return recordRepository.findByReturnDateIsNullAndDueDateBefore(today)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        LocalDate end = dueTo == null || dueTo.isAfter(today) ? today : dueTo;
+        return openRecordsPage(dueFrom, end, category, borrowerId, cursor, size);
+    }
+
+    private CursorPage<BorrowRecordResponse> openRecordsPage(LocalDate dueFrom, LocalDate dueTo, String category,
+                                                             UUID borrowerId, String cursor, int size) {
+        LocalDate from = dueFrom != null ? dueFrom : MIN_DUE_DATE;
+        LocalDate to = dueTo != null ? dueTo : MAX_DUE_DATE;
+        if (!from.isBefore(to)) throw new IllegalArgumentException("dueFrom must be before dueTo");
+
+        // Without a cursor, start just before the window so the keyset predicate admits every row
+        LocalDate afterDue = from.minusDays(1);
+        UUID afterId = FIRST_ID;
+        if (StringUtils.hasText(cursor)) {
+            Cursor position = Cursor.decode(cursor, "dueDate");
+            afterDue = parseDateCursorValue(position.value());
+            afterId = position.id();
+        }
+
+        int limit = normalizePageSize(size) + 1;
+        List<BorrowRecordResponse> rows = recordRepository.findOpenPage(from, to, afterDue, afterId,
+                StringUtils.hasText(category) ? category : null, borrowerId, PageRequest.of(0, limit));
+        return toCursorPage(rows, limit - 1, "dueDate", BorrowRecordResponse::getDueDate);
+    }
+
+    // One extra row was fetched to detect whether another page exists
+    private CursorPage<BorrowRecordResponse> toCursorPage(List<BorrowRecordResponse> rows, int size, String sortKey,
+                                                          Function<BorrowRecordResponse, LocalDate> sortValue) {
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+
+        String nextCursor = null;
+        if (hasNext) {
+            BorrowRecordResponse last = rows.get(rows.size() - 1);
+            nextCursor = new Cursor(sortKey, sortValue.apply(last).toString(), last.getId()).encode();
+        }
+
+        return CursorPage.<BorrowRecordResponse>builder()
+                .content(rows)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int normalizePageSize(int size) {
+        if (size <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private LocalDate parseDateCursorValue(String value) {
+        if (value == null) throw new IllegalArgumentException("Invalid cursor");
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     /**
@@ -6,6 +6,8 @@ import com.example.library.entity.Borrower;
 import com.example.library.entity.MembershipType;
 import com.example.library.exception.ResourceNotFoundException;
 import com.example.library.repository.BorrowerRepository;
+import com.example.library.routing.ReplicaRouting;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,10 +15,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 @RequiredArgsConstructor
 public class BorrowerService {
 
     private final BorrowerRepository borrowerRepository;
+    private final LookupCaches caches;
 
     /**
      * Register a new borrower
@@ -38,13 +42,18 @@ public class BorrowerService {
 
         borrowerRepository.save(borrower);
 
-        return BorrowerResponse.builder()
-                .id(borrower.getId())
-                .name(borrower.getName())
-                .email(borrower.getEmail())
-                .membershipType(borrower.getMembershipType())
-                .maxBorrowLimit(borrower.getMaxBorrowLimit())
-                .build();
+        return toDto(borrower);
+    }
+
+    /**
+     * Fetch borrower details, served from the lookup cache when possible
+     */
+    public BorrowerResponse getById(UUID id) {
+        if (id == null) throw new IllegalArgumentException("Borrower ID must be provided");
+        BorrowerResponse borrower = caches.borrowers().get(id,
+                key -> ReplicaRouting.onPrimary(() -> borrowerRepository.findById(key).map(this::toDto).orElse(null)));
+        if (borrower == null) throw new ResourceNotFoundException("Borrower not found with id: " + id);
+        return borrower;
     }
 
     /**
@@ -55,4 +64,14 @@ public class BorrowerService {
         return borrowerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + id));
     }
+
+    private BorrowerResponse toDto(Borrower borrower) {
+        return BorrowerResponse.builder()
+                .id(borrower.getId())
+                .name(borrower.getName())
+                .email(borrower.getEmail())
+                .membershipType(borrower.getMembershipType())
+                .maxBorrowLimit(borrower.getMaxBorrowLimit())
+                .build();
+    }
 }
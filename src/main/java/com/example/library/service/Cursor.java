@@ -0,0 +1,39 @@
+package com.example.library.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position: the sort key name, its last value and the id tiebreaker.
+ * A null value is encoded by leaving the value part out, so it cannot be confused with the text "null".
+ */
+record Cursor(String sortKey, String value, UUID id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String encode() {
+        String raw = value != null ? sortKey + ":" + id + ":" + value : sortKey + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a client supplied token, rejecting tokens issued for another sort order
+     */
+    static Cursor decode(String token, String expectedSortKey) {
+        String[] parts;
+        UUID id;
+        try {
+            parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 3);
+            id = parts.length >= 2 ? UUID.fromString(parts[1]) : null;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (id == null) throw new IllegalArgumentException("Invalid cursor");
+        if (!parts[0].equals(expectedSortKey)) {
+            throw new IllegalArgumentException("Cursor does not match sort field: " + expectedSortKey);
+        }
+        return new Cursor(parts[0], parts.length == 3 ? parts[2] : null, id);
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.library.service;
+
+import com.example.library.dto.AccrualReport;
+import com.example.library.dto.BorrowerFineResponse;
+import com.example.library.dto.CategoryFineResponse;
+import com.example.library.entity.Borrower;
+import com.example.library.entity.CategoryFineTotal;
+import com.example.library.entity.FineAccrualCheckpoint;
+import com.example.library.entity.JournalEventType;
+import com.example.library.exception.ResourceNotFoundException;
+import com.example.library.repository.AccrualRow;
+import com.example.library.repository.BorrowRecordRepository;
+import com.example.library.repository.BorrowerRepository;
+import com.example.library.repository.CategoryFineTotalRepository;
+import com.example.library.repository.FineAccrualCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Accrues overdue fines on open loans and keeps outstanding totals per borrower and per category.
+ * <p>
+ * Each run first settles records returned since the last run (their accrued amount leaves the totals), then walks
+ * open overdue records not yet accrued for today in (dueDate, id) keyset chunks. Every chunk commits its record
+ * updates, the total deltas and the checkpoint together, so a restarted run resumes after the last committed chunk.
+ * This service is the only writer of the totals; the borrow and return paths never touch them.
+ */
+@Slf4j
+@Service
+public class FineAccrualService {
+
+    private static final String CHECKPOINT = "fine-accrual";
+    private static final String UNCATEGORIZED = "Uncategorized";
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int MAX_TOP_BORROWERS = 500;
+
+    private final BorrowRecordRepository recordRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final CategoryFineTotalRepository categoryTotalRepository;
+    private final FineAccrualCheckpointRepository checkpointRepository;
+    private final FinePolicyService finePolicyService;
+    private final JournalService journalService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public FineAccrualService(BorrowRecordRepository recordRepository,
+                              BorrowerRepository borrowerRepository,
+                              CategoryFineTotalRepository categoryTotalRepository,
+                              FineAccrualCheckpointRepository checkpointRepository,
+                              FinePolicyService finePolicyService,
+                              JournalService journalService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${library.fines.accrual-chunk-size:500}") int chunkSize) {
+        this.recordRepository = recordRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.categoryTotalRepository = categoryTotalRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.finePolicyService = finePolicyService;
+        this.journalService = journalService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Scheduled(cron = "${library.fines.accrual-cron:-}")
+    public void scheduledRun() {
+        AccrualReport report = run();
+        log.info("Fine accrual for {}: {} records accrued (+{}), {} settled (-{}) in {} ms",
+                report.getRunDate(), report.getRecordsAccrued(), report.getFinesAccrued(),
+                report.getRecordsSettled(), report.getFinesSettled(), report.getDurationMs());
+    }
+
+    /**
+     * Bring every open overdue record up to today; a no-op apart from settlement once today's run has completed
+     */
+    public synchronized AccrualReport run() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        AccrualReport report = AccrualReport.builder().runDate(today).build();
+
+        settle(report);
+
+        FineAccrualCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT).orElse(null);
+        if (checkpoint == null || !today.equals(checkpoint.getRunDate())) {
+            checkpoint = FineAccrualCheckpoint.builder().name(CHECKPOINT).runDate(today).build();
+        } else if (checkpoint.isCompleted()) {
+            report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+            return report;
+        } else {
+            report.setResumed(checkpoint.getLastRecordId() != null);
+        }
+
+        // Without a checkpoint, start before the earliest possible due date so the keyset predicate admits every row
+        LocalDate afterDue = checkpoint.getLastDueDate() != null ? checkpoint.getLastDueDate() : LocalDate.of(1970, 1, 1);
+        UUID afterId = checkpoint.getLastRecordId() != null ? checkpoint.getLastRecordId() : FIRST_ID;
+        while (true) {
+            List<AccrualRow> chunk = recordRepository.findAccrualChunk(today, afterDue, afterId, PageRequest.of(0, chunkSize));
+            FineAccrualCheckpoint position = checkpoint;
+            boolean last = chunk.size() < chunkSize;
+            if (!chunk.isEmpty()) {
+                AccrualRow tail = chunk.get(chunk.size() - 1);
+                position.setLastDueDate(tail.getDueDate());
+                position.setLastRecordId(tail.getId());
+                afterDue = tail.getDueDate();
+                afterId = tail.getId();
+            }
+            position.setCompleted(last);
+            transactionTemplate.executeWithoutResult(status -> {
+                accrueChunk(chunk, today, report);
+                checkpointRepository.save(position);
+            });
+            if (last) break;
+        }
+
+        report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private void accrueChunk(List<AccrualRow> chunk, LocalDate today, AccrualReport report) {
+        Totals totals = new Totals();
+        for (AccrualRow row : chunk) {
+            double previous = row.getOutstandingFine() != null ? row.getOutstandingFine() : 0.0;
+            double fine = finePolicyService.fineFor(row.getCategory(), row.getDueDate(), today);
+            // Zero rows: returned or accrued by another run since the chunk was read
+            if (recordRepository.accrueFine(row.getId(), fine, today, previous) == 0) continue;
+            totals.add(row, fine - previous);
+            journalService.record(JournalEventType.FINE_ACCRUED, row.getId(), fineEvent(row, fine, today));
+            report.setRecordsAccrued(report.getRecordsAccrued() + 1);
+            report.setFinesAccrued(report.getFinesAccrued() + fine - previous);
+        }
+        totals.apply();
+    }
+
+    // Returned records leave the outstanding totals; the final fine stays on the record
+    private void settle(AccrualReport report) {
+        UUID afterId = FIRST_ID;
+        while (true) {
+            List<AccrualRow> chunk = recordRepository.findSettlementChunk(afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) return;
+            afterId = chunk.get(chunk.size() - 1).getId();
+            transactionTemplate.executeWithoutResult(status -> {
+                Totals totals = new Totals();
+                for (AccrualRow row : chunk) {
+                    double previous = row.getOutstandingFine();
+                    if (recordRepository.settleFine(row.getId(), previous) == 0) continue;
+                    totals.add(row, -previous);
+                    journalService.record(JournalEventType.FINE_SETTLED, row.getId(), fineEvent(row, previous, null));
+                    report.setRecordsSettled(report.getRecordsSettled() + 1);
+                    report.setFinesSettled(report.getFinesSettled() + previous);
+                }
+                totals.apply();
+            });
+            if (chunk.size() < chunkSize) return;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BorrowerFineResponse getBorrowerFines(UUID borrowerId) {
+        Borrower borrower = borrowerRepository.findById(borrowerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with ID: " + borrowerId));
+        return toDto(borrower);
+    }
+
+    /**
+     * Borrowers with the highest outstanding fines, read from the maintained totals
+     */
+    @Transactional(readOnly = true)
+    public List<BorrowerFineResponse> getTopBorrowerFines(int limit) {
+        int size = limit <= 0 ? 20 : Math.min(limit, MAX_TOP_BORROWERS);
+        return borrowerRepository.findByOutstandingFinesGreaterThanOrderByOutstandingFinesDesc(0.0, PageRequest.of(0, size))
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryFineResponse> getCategoryFines() {
+        return categoryTotalRepository.findAllByOrderByOutstandingFinesDesc().stream()
+                .map(t -> new CategoryFineResponse(t.getCategory(), t.getOutstandingFines()))
+                .collect(Collectors.toList());
+    }
+
+    // Accrued: the record's outstanding fine as of the date; settled: the amount leaving the outstanding totals
+    private Map<String, Object> fineEvent(AccrualRow row, double amount, LocalDate asOf) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("recordId", row.getId());
+        event.put("borrowerId", row.getBorrowerId());
+        event.put("category", categoryKey(row));
+        event.put("amount", amount);
+        if (asOf != null) event.put("asOf", asOf);
+        return event;
+    }
+
+    // Same key as the fine policy lookup, so "Fiction" and " fiction" share one total
+    private static String categoryKey(AccrualRow row) {
+        return row.getCategory() != null ? FinePolicyService.normalize(row.getCategory()) : UNCATEGORIZED;
+    }
+
+    private BorrowerFineResponse toDto(Borrower borrower) {
+        return new BorrowerFineResponse(borrower.getId(), borrower.getName(), borrower.getOutstandingFines());
+    }
+
+    // Per-chunk deltas, written as one UPDATE per borrower and per category
+    private class Totals {
+        private final Map<UUID, Double> borrowers = new HashMap<>();
+        private final Map<String, Double> categories = new HashMap<>();
+
+        void add(AccrualRow row, double delta) {
+            if (delta == 0.0) return;
+            borrowers.merge(row.getBorrowerId(), delta, Double::sum);
+            categories.merge(categoryKey(row), delta, Double::sum);
+        }
+
+        void apply() {
+            borrowers.forEach(borrowerRepository::addOutstandingFines);
+            categories.forEach((category, delta) -> {
+                if (categoryTotalRepository.addOutstandingFines(category, delta) == 0) {
+                    categoryTotalRepository.save(new CategoryFineTotal(category, delta));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.library.service;
+
+import com.example.library.dto.FinePolicyRequest;
+import com.example.library.dto.FinePolicyResponse;
+import com.example.library.entity.FinePolicy;
+import com.example.library.exception.DuplicateResourceException;
+import com.example.library.exception.ResourceNotFoundException;
+import com.example.library.repository.FinePolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Fine policies served from an immutable in-memory table.
+ * The table is swapped atomically after policy changes and, optionally, on a schedule.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FinePolicyService {
+
+    static final double DEFAULT_FINE_PER_DAY = 10.0;
+
+    private final FinePolicyRepository finePolicyRepository;
+
+    // Lower-cased category -> fine per day; replaced wholesale, never mutated
+    private volatile Map<String, Double> rates;
+
+    /**
+     * Fine per day for a book category, without touching the database
+     */
+    public double finePerDay(String category) {
+        if (category == null) return DEFAULT_FINE_PER_DAY;
+        Map<String, Double> current = rates;
+        if (current == null) current = reload();
+        return current.getOrDefault(normalize(category), DEFAULT_FINE_PER_DAY);
+    }
+
+    /**
+     * Fine owed on {@code asOf} for a loan of the given category that was due on {@code dueDate}
+     */
+    public double fineFor(String category, LocalDate dueDate, LocalDate asOf) {
+        if (!asOf.isAfter(dueDate)) return 0.0;
+        long daysLate = ChronoUnit.DAYS.between(dueDate, asOf);
+        return daysLate * finePerDay(category);
+    }
+
+    /**
+     * Rebuild the rate table from the fine_policy table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.fines.policy-refresh-cron:-}")
+    public synchronized Map<String, Double> reload() {
+        Map<String, Double> loaded = new HashMap<>();
+        // First policy wins for a category, matching the previous lookup order
+        for (FinePolicy p : finePolicyRepository.findAll()) {
+            if (p.getCategory() != null) loaded.putIfAbsent(normalize(p.getCategory()), p.getFinePerDay());
+        }
+        Map<String, Double> snapshot = Map.copyOf(loaded);
+        rates = snapshot;
+        log.debug("Loaded {} fine policies", snapshot.size());
+        return snapshot;
+    }
+
+    @Transactional(readOnly = true)
+    public List<FinePolicyResponse> list() {
+        return finePolicyRepository.findAll().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public FinePolicyResponse create(FinePolicyRequest req) {
+        validate(req);
+        String category = req.getCategory().trim();
+        if (finePolicyRepository.existsByCategoryIgnoreCase(category)) {
+            throw new DuplicateResourceException("A fine policy for this category already exists.");
+        }
+
+        FinePolicy saved = finePolicyRepository.save(FinePolicy.builder()
+                .category(category)
+                .finePerDay(req.getFinePerDay())
+                .build());
+        reloadAfterCommit();
+        return toDto(saved);
+    }
+
+    @Transactional
+    public FinePolicyResponse update(Long id, FinePolicyRequest req) {
+        validate(req);
+        FinePolicy policy = finePolicyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Fine policy not found with id: " + id));
+
+        String category = req.getCategory().trim();
+        if (!category.equalsIgnoreCase(policy.getCategory())
+                && finePolicyRepository.existsByCategoryIgnoreCase(category)) {
+            throw new DuplicateResourceException("A fine policy for this category already exists.");
+        }
+
+        policy.setCategory(category);
+        policy.setFinePerDay(req.getFinePerDay());
+        FinePolicy saved = finePolicyRepository.save(policy);
+        reloadAfterCommit();
+        return toDto(saved);
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        FinePolicy policy = finePolicyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Fine policy not found with id: " + id));
+        finePolicyRepository.delete(policy);
+        reloadAfterCommit();
+    }
+
+    // Swap the table only once the change is visible to the reload query
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    private void validate(FinePolicyRequest req) {
+        if (req == null) throw new IllegalArgumentException("Request body is missing");
+        if (!StringUtils.hasText(req.getCategory())) throw new IllegalArgumentException("Category must be provided");
+        if (req.getFinePerDay() < 0) throw new IllegalArgumentException("Fine per day cannot be negative");
+    }
+
+    // Category key shared by fine policies and the per-category fine totals
+    static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private FinePolicyResponse toDto(FinePolicy p) {
+        return FinePolicyResponse.builder()
+                .id(p.getId())
+                .category(p.getCategory())
+                .finePerDay(p.getFinePerDay())
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.library.service;
+
+import com.example.library.dto.HoldResponse;
+import com.example.library.entity.Book;
+import com.example.library.entity.Hold;
+import com.example.library.entity.HoldStatus;
+import com.example.library.exception.DuplicateResourceException;
+import com.example.library.exception.ResourceNotFoundException;
+import com.example.library.repository.BookRepository;
+import com.example.library.repository.BorrowerRepository;
+import com.example.library.repository.HoldRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * FIFO hold queues for titles with no copies on the shelf.
+ * <p>
+ * A returned copy goes straight to the oldest waiting hold (one index seek plus one conditional UPDATE) and is kept
+ * off the shelf until that borrower picks it up or the pickup window lapses; only when no one is waiting does the
+ * copy go back to availableCopies. Borrowing consumes the borrower's ready hold before touching the shelf counter.
+ */
+@Slf4j
+@Service
+public class HoldService {
+
+    private static final EnumSet<HoldStatus> ACTIVE = EnumSet.of(HoldStatus.WAITING, HoldStatus.READY);
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final BorrowerService borrowerService;
+    private final LookupCaches caches;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pickupWindow;
+
+    public HoldService(HoldRepository holdRepository,
+                       BookRepository bookRepository,
+                       BorrowerRepository borrowerRepository,
+                       BorrowerService borrowerService,
+                       LookupCaches caches,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${library.holds.pickup-window:3d}") Duration pickupWindow) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.borrowerService = borrowerService;
+        this.caches = caches;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pickupWindow = pickupWindow;
+    }
+
+    /**
+     * Join the queue for a book that has no copies on the shelf
+     */
+    @Transactional
+    public HoldResponse placeHold(UUID borrowerId, UUID bookId) {
+        borrowerService.getById(borrowerId);
+        // Read the live counter; the cached book may lag behind a borrow that just took the last copy
+        Book book = bookRepository.findById(bookId)
+                .filter(b -> !b.isDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+        if (book.getAvailableCopies() > 0) {
+            throw new IllegalStateException("Copies of " + book.getTitle() + " are available; borrow it instead");
+        }
+        if (holdRepository.existsByBorrowerIdAndBookIdAndStatusIn(borrowerId, bookId, ACTIVE)) {
+            throw new DuplicateResourceException("Borrower already has a hold on book: " + book.getTitle());
+        }
+
+        Hold hold = holdRepository.save(Hold.builder()
+                .book(book)
+                .borrower(borrowerRepository.getReferenceById(borrowerId))
+                .status(HoldStatus.WAITING)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        // A copy returned between the check above and the insert went to the shelf; hand it to the queue instead
+        if (bookRepository.decrementAvailableCopies(bookId) > 0) {
+            caches.books().invalidateAfterCommit(bookId);
+            LocalDateTime now = LocalDateTime.now();
+            UUID promoted = allocateToQueue(bookId, now);
+            if (promoted == null) {
+                bookRepository.incrementAvailableCopies(bookId);
+            } else if (promoted.equals(hold.getId())) {
+                hold.setStatus(HoldStatus.READY);
+                hold.setReadyAt(now);
+                hold.setExpiresAt(now.plus(pickupWindow));
+            }
+        }
+        return toDto(hold, book.getTitle());
+    }
+
+    /**
+     * Cancel a waiting or ready hold; a copy set aside for it moves on to the next in line
+     */
+    @Transactional
+    public HoldResponse cancelHold(UUID borrowerId, UUID holdId) {
+        Hold hold = holdRepository.findWithDetails(holdId)
+                .filter(h -> h.getBorrower().getId().equals(borrowerId))
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+        HoldStatus status = hold.getStatus();
+        if (!ACTIVE.contains(status) || holdRepository.transition(holdId, status, HoldStatus.CANCELLED) == 0) {
+            throw new IllegalStateException("Hold is no longer active: " + holdId);
+        }
+        if (status == HoldStatus.READY) releaseCopy(hold.getBook().getId());
+        hold.setStatus(HoldStatus.CANCELLED);
+        return toDto(hold, hold.getBook().getTitle());
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldResponse> getHolds(UUID borrowerId) {
+        borrowerService.getById(borrowerId);
+        return holdRepository.findByBorrower(borrowerId).stream()
+                .map(h -> toDto(h, h.getBook().getTitle()))
+                .toList();
+    }
+
+    /**
+     * Consume the borrower's ready hold on a book; the copy it reserved is the one being borrowed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claimReady(UUID borrowerId, UUID bookId) {
+        return holdRepository.fulfillReady(borrowerId, bookId) > 0;
+    }
+
+    /**
+     * Hand a copy coming back into circulation to the oldest waiting hold, or to the shelf when no one is waiting
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseCopy(UUID bookId) {
+        if (allocateToQueue(bookId, LocalDateTime.now()) == null) {
+            bookRepository.incrementAvailableCopies(bookId);
+            caches.books().invalidateAfterCommit(bookId);
+        }
+    }
+
+    /**
+     * Expire ready holds whose pickup window lapsed and pass their copies on
+     */
+    @Scheduled(fixedDelayString = "${library.holds.expiry-check-interval:60s}")
+    public void expireHolds() {
+        int expired = 0;
+        List<Hold> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = holdRepository.findExpired(now, PageRequest.of(0, EXPIRY_BATCH_SIZE));
+            for (Hold hold : batch) {
+                Boolean done = transactionTemplate.execute(status -> {
+                    if (holdRepository.transition(hold.getId(), HoldStatus.READY, HoldStatus.EXPIRED) == 0) return false;
+                    releaseCopy(hold.getBook().getId());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) expired++;
+            }
+        } while (batch.size() == EXPIRY_BATCH_SIZE);
+        if (expired > 0) log.info("Expired {} uncollected holds", expired);
+    }
+
+    // Returns the promoted hold, or null when no one is waiting; retries only when a concurrent return won the head
+    private UUID allocateToQueue(UUID bookId, LocalDateTime now) {
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            List<UUID> head = holdRepository.findQueueHead(bookId, PageRequest.of(0, 1));
+            if (head.isEmpty()) return null;
+            if (holdRepository.markReady(head.get(0), now, now.plus(pickupWindow)) > 0) return head.get(0);
+        }
+        return null;
+    }
+
+    private HoldResponse toDto(Hold hold, String bookTitle) {
+        UUID bookId = hold.getBook().getId();
+        return HoldResponse.builder()
+                .id(hold.getId())
+                .bookId(bookId)
+                .bookTitle(bookTitle)
+                .borrowerId(hold.getBorrower().getId())
+                .status(hold.getStatus())
+                .position(hold.getStatus() == HoldStatus.WAITING ? holdRepository.countAhead(bookId, hold.getId()) : null)
+                .createdAt(hold.getCreatedAt())
+                .readyAt(hold.getReadyAt())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
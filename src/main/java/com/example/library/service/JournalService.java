@@ -0,0 +1,172 @@
+package com.example.library.service;
+
+import com.example.library.dto.JournalPage;
+import com.example.library.entity.JournalEventType;
+import com.example.library.entity.OutboxEvent;
+import com.example.library.journal.JournalRecord;
+import com.example.library.journal.SegmentedJournal;
+import com.example.library.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Change stream for books, loans and fines.
+ * <p>
+ * Services record events into the outbox table inside their own transaction, so an event exists exactly when its
+ * change committed. The relay drains the outbox in id order into the segmented journal, which assigns dense offsets,
+ * and deletes the rows once the journal has forced them to disk. Consumers tail the journal by offset instead of
+ * polling borrow_records. Events committed late (a lower id than rows already relayed) just get a later offset.
+ */
+@Slf4j
+@Service
+public class JournalService {
+
+    private static final int MAX_READ = 1000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SegmentedJournal journal;
+    private final int relayBatchSize;
+
+    // Outbox ids already in the journal but maybe not yet deleted (a crash or failed delete between the two steps)
+    private final Set<UUID> appendedNotDeleted = new HashSet<>();
+
+    public JournalService(OutboxEventRepository outboxRepository,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${library.journal.dir:journal}") Path dir,
+                          @Value("${library.journal.segment-max-size:64MB}") DataSize segmentMaxSize,
+                          @Value("${library.journal.relay-batch-size:500}") int relayBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayBatchSize = Math.max(1, relayBatchSize);
+        try {
+            this.journal = new SegmentedJournal(dir, segmentMaxSize.toBytes(), objectMapper);
+            // Only the last relayed batch can still be in the outbox after a restart
+            long next = journal.nextOffset();
+            for (JournalRecord r : journal.read(Math.max(0, next - this.relayBatchSize), this.relayBatchSize)) {
+                appendedNotDeleted.add(r.eventId());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open journal in " + dir, ex);
+        }
+    }
+
+    /**
+     * Record an event as part of the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(JournalEventType type, Object entityId, Object payload) {
+        try {
+            outboxRepository.save(OutboxEvent.builder()
+                    .type(type)
+                    .key(type.keyFor(entityId))
+                    .occurredAt(LocalDateTime.now())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize " + type + " event", ex);
+        }
+    }
+
+    /**
+     * Move committed outbox events into the journal
+     */
+    @Scheduled(fixedDelayString = "${library.journal.relay-interval:1s}")
+    public synchronized int relay() {
+        int relayed = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, relayBatchSize));
+            if (batch.isEmpty()) break;
+
+            List<JournalRecord> pending = batch.stream()
+                    .filter(e -> !appendedNotDeleted.contains(e.getId()))
+                    .map(this::toRecord)
+                    .toList();
+            try {
+                journal.append(pending);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to append to journal", ex);
+            }
+            pending.forEach(r -> appendedNotDeleted.add(r.eventId()));
+
+            List<UUID> ids = batch.stream().map(OutboxEvent::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(ids));
+            appendedNotDeleted.clear();
+
+            relayed += pending.size();
+            if (batch.size() < relayBatchSize) break;
+        }
+        return relayed;
+    }
+
+    /**
+     * Events from an offset on; pass nextOffset back to continue
+     */
+    public JournalPage read(long from, int limit) {
+        if (from < 0) throw new IllegalArgumentException("Offset must not be negative");
+        int size = limit <= 0 ? 100 : Math.min(limit, MAX_READ);
+        try {
+            List<JournalRecord> events = journal.read(from, size);
+            long endOffset = journal.nextOffset();
+            long nextOffset = events.isEmpty() ? Math.max(from, endOffset) : events.get(events.size() - 1).offset() + 1;
+            return new JournalPage(events, nextOffset, endOffset);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read journal", ex);
+        }
+    }
+
+    public List<SegmentedJournal.SegmentInfo> segments() {
+        return journal.segments();
+    }
+
+    @Scheduled(cron = "${library.journal.compaction-cron:-}")
+    public SegmentedJournal.CompactionResult compact() {
+        try {
+            SegmentedJournal.CompactionResult result = journal.compact();
+            if (result.segmentsRewritten() > 0) {
+                log.info("Journal compaction rewrote {} segments: {} -> {} records, {} bytes freed",
+                        result.segmentsRewritten(), result.recordsBefore(), result.recordsAfter(), result.bytesFreed());
+            }
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Journal compaction failed", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private JournalRecord toRecord(OutboxEvent event) {
+        try {
+            return new JournalRecord(-1, event.getId(), event.getType().name(), event.getKey(), event.getOccurredAt(),
+                    objectMapper.readTree(event.getPayload()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getId(), ex);
+        }
+    }
+}
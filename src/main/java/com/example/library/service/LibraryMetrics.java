@@ -0,0 +1,59 @@
+package com.example.library.service;
+
+import com.example.library.repository.BookRepository;
+import com.example.library.repository.BorrowRecordRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Business gauges for /actuator/metrics.
+ * <p>
+ * Values come from count queries on a fixed schedule, so scraping the endpoint never touches the database.
+ */
+@Slf4j
+@Component
+public class LibraryMetrics {
+
+    private final BookRepository bookRepository;
+    private final BorrowRecordRepository recordRepository;
+
+    private final AtomicLong activeLoans = new AtomicLong();
+    private final AtomicLong overdueLoans = new AtomicLong();
+    private final AtomicLong unavailableBooks = new AtomicLong();
+
+    public LibraryMetrics(BookRepository bookRepository, BorrowRecordRepository recordRepository, MeterRegistry registry) {
+        this.bookRepository = bookRepository;
+        this.recordRepository = recordRepository;
+
+        Gauge.builder("library.loans.active", activeLoans, AtomicLong::get)
+                .description("Borrow records not yet returned")
+                .register(registry);
+        Gauge.builder("library.loans.overdue", overdueLoans, AtomicLong::get)
+                .description("Unreturned borrow records past their due date")
+                .register(registry);
+        Gauge.builder("library.books.unavailable", unavailableBooks, AtomicLong::get)
+                .description("Catalog titles with no copies left to lend")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${library.metrics.gauge-refresh-interval:30s}",
+            initialDelayString = "${library.metrics.gauge-refresh-interval:30s}")
+    public void refresh() {
+        try {
+            activeLoans.set(recordRepository.countByReturnDateIsNull());
+            overdueLoans.set(recordRepository.countByReturnDateIsNullAndDueDateBefore(LocalDate.now()));
+            unavailableBooks.set(bookRepository.countByDeletedFalseAndAvailableCopies(0));
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh library gauges: {}", ex.getMessage());
+        }
+    }
+}
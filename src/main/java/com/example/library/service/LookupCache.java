@@ -0,0 +1,131 @@
+package com.example.library.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache with LRU eviction, a time-to-live and hit/miss/eviction counters.
+ * Values must be immutable snapshots (DTOs), never managed entities.
+ */
+public class LookupCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LookupCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > LookupCache.this.maxSize;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Cached value for {@code key}, loading it on a miss; a loader returning null is not cached
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long observed = generation.get();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation.get() == observed) entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Invalidate now and again after commit, so readers cannot re-cache the pre-commit row
+     */
+    public void invalidateAfterCommit(K key) {
+        invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(key);
+                }
+            });
+        }
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Drop expired entries; lookups also expire lazily
+     */
+    public synchronized int purgeExpired() {
+        long now = System.nanoTime();
+        int purged = 0;
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().loadedAt >= ttlNanos) {
+                it.remove();
+                purged++;
+            }
+        }
+        expirations.addAndGet(purged);
+        return purged;
+    }
+
+    public synchronized Stats stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return new Stats(name, entries.size(), maxSize, Duration.ofNanos(ttlNanos).toSeconds(),
+                h, m, h + m == 0 ? 0.0 : (double) h / (h + m), evictions.get(), expirations.get());
+    }
+
+    public record Stats(String name, int size, int maxSize, long ttlSeconds, long hits, long misses,
+                        double hitRate, long evictions, long expirations) {
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
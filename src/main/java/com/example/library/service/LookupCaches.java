@@ -0,0 +1,53 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowerResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Book and borrower lookup caches shared by the services
+ */
+@Component
+public class LookupCaches {
+
+    private final LookupCache<UUID, BookResponse> books;
+    private final LookupCache<UUID, BorrowerResponse> borrowers;
+
+    public LookupCaches(@Value("${library.cache.books.max-size:10000}") int bookMaxSize,
+                        @Value("${library.cache.books.ttl:60s}") Duration bookTtl,
+                        @Value("${library.cache.borrowers.max-size:10000}") int borrowerMaxSize,
+                        @Value("${library.cache.borrowers.ttl:10m}") Duration borrowerTtl) {
+        this.books = new LookupCache<>("books", bookMaxSize, bookTtl);
+        this.borrowers = new LookupCache<>("borrowers", borrowerMaxSize, borrowerTtl);
+    }
+
+    public LookupCache<UUID, BookResponse> books() {
+        return books;
+    }
+
+    public LookupCache<UUID, BorrowerResponse> borrowers() {
+        return borrowers;
+    }
+
+    public List<LookupCache.Stats> stats() {
+        return List.of(books.stats(), borrowers.stats());
+    }
+
+    public void clear() {
+        books.clear();
+        borrowers.clear();
+    }
+
+    // Expired entries would otherwise linger until looked up or evicted
+    @Scheduled(fixedDelayString = "${library.cache.purge-interval:60s}")
+    public void purgeExpired() {
+        books.purgeExpired();
+        borrowers.purgeExpired();
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.library.service;
+
+import com.example.library.dto.MonthEndReport;
+import com.example.library.entity.Borrower;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.BorrowRecordRepository;
+import com.example.library.repository.BorrowerRepository;
+import com.example.library.repository.ReportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Month-end overdue and fine reports over borrow_records.
+ * <p>
+ * The borrow-date range is split recursively on a fork-join pool; each leaf streams its slice in its own read-only
+ * transaction into primitive accumulators, and the partial results are merged on the way back up. Nothing but the
+ * per-category, per-membership and per-late-borrower totals is held in memory.
+ */
+@Slf4j
+@Service
+public class ReportService {
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+    private static final int MAX_TOP_BORROWERS = 1000;
+    private static final String[] SECTIONS = {"overdue-by-category", "fines-by-membership", "top-late-borrowers"};
+
+    private final BorrowRecordRepository recordRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final FinePolicyService finePolicyService;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path outputDir;
+    private final int parallelism;
+    private final int topBorrowers;
+
+    public ReportService(BorrowRecordRepository recordRepository,
+                         BorrowerRepository borrowerRepository,
+                         FinePolicyService finePolicyService,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${library.reports.dir:reports}") String outputDir,
+                         @Value("${library.reports.parallelism:0}") int parallelism,
+                         @Value("${library.reports.top-borrowers:100}") int topBorrowers) {
+        this.recordRepository = recordRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.finePolicyService = finePolicyService;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.outputDir = Path.of(outputDir);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.topBorrowers = Math.max(1, Math.min(topBorrowers, MAX_TOP_BORROWERS));
+    }
+
+    /**
+     * Report for the previous calendar month, on the first day of each month when scheduled
+     */
+    @Scheduled(cron = "${library.reports.month-end-cron:-}")
+    public void scheduledMonthEnd() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        MonthEndReport report = generate(month.atDay(1), month.plusMonths(1).atDay(1));
+        log.info("Month-end report for {}: {} records in {} ms, written to {}",
+                month, report.getRecordsScanned(), report.getDurationMs(), report.getFiles());
+    }
+
+    /**
+     * Aggregate loans borrowed in [from, to) and write the report as CSV and JSON files
+     */
+    public MonthEndReport generate(LocalDate from, LocalDate to) {
+        MonthEndReport report = aggregate(from, to, parallelism);
+        write(report);
+        return report;
+    }
+
+    /**
+     * Aggregate loans borrowed in [from, to) on a pool of the given size, without writing files
+     */
+    public MonthEndReport aggregate(LocalDate from, LocalDate to, int parallelism) {
+        if (from == null || to == null || !from.isBefore(to)) throw new IllegalArgumentException("from must be before to");
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate asOf = to.isAfter(today) ? today : to;
+
+        // A few partitions per worker so a slow slice does not leave the others idle
+        long days = ChronoUnit.DAYS.between(from, to);
+        long leafDays = Math.max(1, days / (parallelism * 4L));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Totals totals;
+        try {
+            totals = pool.invoke(new Partition(from, to, asOf, leafDays));
+        } finally {
+            pool.shutdown();
+        }
+
+        return MonthEndReport.builder()
+                .from(from)
+                .to(to)
+                .asOf(asOf)
+                .recordsScanned(totals.records)
+                .partitions(totals.partitions)
+                .parallelism(parallelism)
+                .overdueByCategory(totals.categories.entrySet().stream()
+                        .map(e -> e.getValue().toRow(e.getKey()))
+                        .sorted(Comparator.comparingLong(MonthEndReport.CategoryOverdue::getLateLoans).reversed())
+                        .collect(Collectors.toList()))
+                .finesByMembership(totals.membershipRows())
+                .topLateBorrowers(topLateBorrowers(totals.borrowers))
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private List<MonthEndReport.LateBorrower> topLateBorrowers(Map<UUID, BorrowerTotals> borrowers) {
+        List<Map.Entry<UUID, BorrowerTotals>> top = borrowers.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<UUID, BorrowerTotals>>comparingLong(e -> e.getValue().daysLate).reversed())
+                .limit(topBorrowers)
+                .toList();
+        Map<UUID, String> names = borrowerRepository.findAllById(top.stream().map(Map.Entry::getKey).toList()).stream()
+                .collect(Collectors.toMap(Borrower::getId, b -> b.getName() != null ? b.getName() : ""));
+        return top.stream()
+                .map(e -> new MonthEndReport.LateBorrower(e.getKey(), names.get(e.getKey()),
+                        e.getValue().lateLoans, e.getValue().daysLate, e.getValue().fines))
+                .collect(Collectors.toList());
+    }
+
+    private class Partition extends RecursiveTask<Totals> {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final LocalDate asOf;
+        private final long leafDays;
+
+        Partition(LocalDate from, LocalDate to, LocalDate asOf, long leafDays) {
+            this.from = from;
+            this.to = to;
+            this.asOf = asOf;
+            this.leafDays = leafDays;
+        }
+
+        @Override
+        protected Totals compute() {
+            long days = ChronoUnit.DAYS.between(from, to);
+            if (days <= leafDays) return scan();
+
+            LocalDate middle = from.plusDays(days / 2);
+            Partition left = new Partition(from, middle, asOf, leafDays);
+            Partition right = new Partition(middle, to, asOf, leafDays);
+            left.fork();
+            Totals totals = right.compute();
+            totals.merge(left.join());
+            return totals;
+        }
+
+        private Totals scan() {
+            Totals totals = new Totals();
+            totals.partitions = 1;
+            readOnlyTemplate.executeWithoutResult(status -> {
+                try (Stream<ReportRow> rows = recordRepository.streamReportRows(from, to)) {
+                    rows.forEach(row -> totals.add(row, asOf));
+                }
+            });
+            return totals;
+        }
+    }
+
+    // Mutable primitive accumulators; each partition owns one and they are merged pairwise
+    private class Totals {
+        long records;
+        int partitions;
+        final Map<String, CategoryTotals> categories = new HashMap<>();
+        final long[] membershipLoans = new long[MembershipType.values().length];
+        final long[] membershipLate = new long[MembershipType.values().length];
+        final double[] membershipFines = new double[MembershipType.values().length];
+        final Map<UUID, BorrowerTotals> borrowers = new HashMap<>();
+
+        void add(ReportRow row, LocalDate asOf) {
+            records++;
+            LocalDate end = row.returnDate() != null ? row.returnDate() : asOf;
+            long daysLate = row.dueDate() != null && end.isAfter(row.dueDate())
+                    ? ChronoUnit.DAYS.between(row.dueDate(), end) : 0;
+            // Returned loans carry their final fine; open ones are valued as of the report date
+            double fine = row.returnDate() != null
+                    ? (row.fineAmount() != null ? row.fineAmount() : 0.0)
+                    : (daysLate > 0 ? finePolicyService.fineFor(row.category(), row.dueDate(), asOf) : 0.0);
+
+            CategoryTotals category = categories.computeIfAbsent(
+                    row.category() != null ? row.category() : UNCATEGORIZED, c -> new CategoryTotals());
+            category.loans++;
+            int membership = (row.membershipType() != null ? row.membershipType() : MembershipType.BASIC).ordinal();
+            membershipLoans[membership]++;
+            membershipFines[membership] += fine;
+            category.fines += fine;
+
+            if (daysLate == 0) return;
+            category.lateLoans++;
+            category.daysLate += daysLate;
+            if (row.returnDate() == null) category.stillOpenOverdue++;
+            membershipLate[membership]++;
+
+            BorrowerTotals borrower = borrowers.computeIfAbsent(row.borrowerId(), id -> new BorrowerTotals());
+            borrower.lateLoans++;
+            borrower.daysLate += daysLate;
+            borrower.fines += fine;
+        }
+
+        void merge(Totals other) {
+            records += other.records;
+            partitions += other.partitions;
+            other.categories.forEach((key, value) -> categories.merge(key, value, CategoryTotals::merge));
+            for (int i = 0; i < membershipLoans.length; i++) {
+                membershipLoans[i] += other.membershipLoans[i];
+                membershipLate[i] += other.membershipLate[i];
+                membershipFines[i] += other.membershipFines[i];
+            }
+            other.borrowers.forEach((key, value) -> borrowers.merge(key, value, BorrowerTotals::merge));
+        }
+
+        List<MonthEndReport.MembershipFines> membershipRows() {
+            List<MonthEndReport.MembershipFines> rows = new ArrayList<>();
+            for (MembershipType type : MembershipType.values()) {
+                int i = type.ordinal();
+                rows.add(new MonthEndReport.MembershipFines(type, membershipLoans[i], membershipLate[i], membershipFines[i]));
+            }
+            return rows;
+        }
+    }
+
+    private static final class CategoryTotals {
+        long loans;
+        long lateLoans;
+        long stillOpenOverdue;
+        long daysLate;
+        double fines;
+
+        CategoryTotals merge(CategoryTotals other) {
+            loans += other.loans;
+            lateLoans += other.lateLoans;
+            stillOpenOverdue += other.stillOpenOverdue;
+            daysLate += other.daysLate;
+            fines += other.fines;
+            return this;
+        }
+
+        MonthEndReport.CategoryOverdue toRow(String category) {
+            return new MonthEndReport.CategoryOverdue(category, loans, lateLoans, stillOpenOverdue, daysLate, fines);
+        }
+    }
+
+    private static final class BorrowerTotals {
+        long lateLoans;
+        long daysLate;
+        double fines;
+
+        BorrowerTotals merge(BorrowerTotals other) {
+            lateLoans += other.lateLoans;
+            daysLate += other.daysLate;
+            fines += other.fines;
+            return this;
+        }
+    }
+
+    // One CSV per section plus the whole report as JSON; the file list is recorded on the report itself
+    private void write(MonthEndReport report) {
+        String suffix = report.getFrom() + "_" + report.getTo();
+        try {
+            Files.createDirectories(outputDir);
+            List<String> files = new ArrayList<>();
+            files.add(writeCsv(SECTIONS[0] + "-" + suffix, "category,loans,lateLoans,stillOpenOverdue,daysLate,fines",
+                    report.getOverdueByCategory(), r -> String.join(",", csv(r.getCategory()), String.valueOf(r.getLoans()),
+                            String.valueOf(r.getLateLoans()), String.valueOf(r.getStillOpenOverdue()),
+                            String.valueOf(r.getDaysLate()), String.valueOf(r.getFines()))));
+            files.add(writeCsv(SECTIONS[1] + "-" + suffix, "membershipType,loans,lateLoans,fines",
+                    report.getFinesByMembership(), r -> String.join(",", String.valueOf(r.getMembershipType()),
+                            String.valueOf(r.getLoans()), String.valueOf(r.getLateLoans()), String.valueOf(r.getFines()))));
+            files.add(writeCsv(SECTIONS[2] + "-" + suffix, "borrowerId,borrowerName,lateLoans,daysLate,fines",
+                    report.getTopLateBorrowers(), r -> String.join(",", String.valueOf(r.getBorrowerId()),
+                            csv(r.getBorrowerName()), String.valueOf(r.getLateLoans()), String.valueOf(r.getDaysLate()),
+                            String.valueOf(r.getFines()))));
+
+            Path json = outputDir.resolve("month-end-" + suffix + ".json");
+            files.add(json.toString());
+            report.setFiles(files);
+            objectMapper.writeValue(json.toFile(), report);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write report: " + ex.getMessage(), ex);
+        }
+    }
+
+    private <T> String writeCsv(String name, String header, List<T> rows, Function<T, String> line) throws IOException {
+        Path file = outputDir.resolve(name + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(header);
+            writer.write('\n');
+            for (T row : rows) {
+                writer.write(line.apply(row));
+                writer.write('\n');
+            }
+        }
+        return file.toString();
+    }
+
+    // Quote fields containing separators, quotes or line breaks (RFC 4180)
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
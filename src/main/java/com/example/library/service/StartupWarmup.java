@@ -0,0 +1,150 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowRecordResponse;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.dto.BorrowerResponse;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.BorrowRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Warms the application before it reports ready: loads the fine policy table, fills the book cache with the
+ * most borrowed titles and runs borrow/return cycles on a throwaway book and borrower in a transaction that
+ * is rolled back, so the JIT has compiled the hot paths before the first real request.
+ * Runners finish before the readiness state turns to ACCEPTING_TRAFFIC.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "library.warmup.enabled", havingValue = "true")
+public class StartupWarmup implements ApplicationRunner {
+
+    private final FinePolicyService finePolicyService;
+    private final BookService bookService;
+    private final BorrowerService borrowerService;
+    private final BorrowService borrowService;
+    private final BorrowRecordRepository recordRepository;
+    private final LookupCaches caches;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int hotBooks;
+    private final Duration hotWindow;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public StartupWarmup(FinePolicyService finePolicyService, BookService bookService, BorrowerService borrowerService,
+                         BorrowService borrowService, BorrowRecordRepository recordRepository, LookupCaches caches,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                         @Value("${library.warmup.hot-books:1000}") int hotBooks,
+                         @Value("${library.warmup.hot-window:30d}") Duration hotWindow,
+                         @Value("${library.warmup.iterations:200}") int iterations,
+                         @Value("${library.warmup.max-duration:15s}") Duration maxDuration) {
+        this.finePolicyService = finePolicyService;
+        this.bookService = bookService;
+        this.borrowerService = borrowerService;
+        this.borrowService = borrowService;
+        this.recordRepository = recordRepository;
+        this.caches = caches;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotBooks = hotBooks;
+        this.hotWindow = hotWindow;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int policies = finePolicyService.reload().size();
+        int cached = preloadHotBooks();
+        int cycles = exerciseBorrowReturn(start + maxDuration.toNanos());
+        log.info("Warm-up finished in {} ms: {} fine policies, {} hot books cached, {} borrow/return cycles",
+                (System.nanoTime() - start) / 1_000_000, policies, cached, cycles);
+    }
+
+    private int preloadHotBooks() {
+        if (hotBooks <= 0) return 0;
+        LocalDate since = LocalDate.now().minusDays(hotWindow.toDays());
+        List<UUID> ids = recordRepository.findMostBorrowedBookIds(since, PageRequest.of(0, hotBooks));
+        int cached = 0;
+        for (UUID id : ids) {
+            try {
+                bookService.getById(id);
+                cached++;
+            } catch (RuntimeException ex) {
+                log.debug("Skipping hot book {}: {}", id, ex.getMessage());
+            }
+        }
+        return cached;
+    }
+
+    // Nothing is committed: the synthetic rows, loans, counters and journal events all roll back together.
+    // Cycling stops at the deadline so a slow host is not kept out of the pool for long.
+    private int exerciseBorrowReturn(long deadline) {
+        if (iterations <= 0) return 0;
+        UUID[] ids = new UUID[2];
+        try {
+            return transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                String suffix = UUID.randomUUID().toString();
+
+                BookRequest book = new BookRequest();
+                book.setTitle("Warm-up " + suffix);
+                book.setAuthor("Warm-up");
+                book.setCategory("Warm-up");
+                book.setTotalCopies(1);
+                ids[0] = bookService.addOrUpdate(book).getId();
+
+                BorrowerRequest borrower = new BorrowerRequest();
+                borrower.setName("Warm-up");
+                borrower.setEmail("warmup-" + suffix + "@localhost");
+                borrower.setMembershipType(MembershipType.PREMIUM);
+                ids[1] = borrowerService.register(borrower).getId();
+
+                int cycles = 0;
+                for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                    BorrowRecordResponse loan = borrowService.borrowBook(ids[1], ids[0]);
+                    BorrowRecordResponse returned = borrowService.toDto(borrowService.returnBook(ids[1], ids[0]));
+                    serialize(loan, returned, bookService.getById(ids[0]), borrowerService.getById(ids[1]));
+                    cycles++;
+                }
+                return cycles;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Borrow/return warm-up stopped early: {}", ex.getMessage());
+            return 0;
+        } finally {
+            // Lookups inside the transaction cached rows that no longer exist
+            if (ids[0] != null) caches.books().invalidate(ids[0]);
+            if (ids[1] != null) caches.borrowers().invalidate(ids[1]);
+        }
+    }
+
+    // Response serialization is part of every request; warm Jackson's serializers for the same DTOs
+    private void serialize(BorrowRecordResponse loan, BorrowRecordResponse returned, BookResponse book,
+                           BorrowerResponse borrower) {
+        try {
+            objectMapper.writeValueAsBytes(List.of(loan, returned));
+            objectMapper.writeValueAsBytes(book);
+            objectMapper.writeValueAsBytes(borrower);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Warm-up serialization failed", ex);
+        }
+    }
+}
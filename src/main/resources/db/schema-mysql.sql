@@ -0,0 +1,161 @@
+-- MySQL schema for the fast-startup profile (ddl-auto=none), generated from the JPA mappings with
+-- Hibernate's MySQLDialect. Apply it to an empty database before the first start; see the README for
+-- regenerating it after an entity change.
+
+create table books (
+    available_copies integer not null,
+    deleted bit not null,
+    is_available bit not null,
+    total_copies integer not null,
+    version bigint not null,
+    id binary(16) not null,
+    author varchar(255),
+    category varchar(255),
+    isbn varchar(255),
+    title varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table borrow_records (
+    accrued_through date,
+    borrow_date date,
+    due_date date,
+    fine_amount float(53),
+    outstanding_fine float(53),
+    return_date date,
+    book_id binary(16),
+    borrower_id binary(16),
+    id binary(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table borrowers (
+    active_loans integer not null,
+    max_borrow_limit integer not null,
+    outstanding_fines float(53) not null,
+    history_version bigint not null,
+    id binary(16) not null,
+    email varchar(255) not null,
+    name varchar(255),
+    membership_type enum ('BASIC','PREMIUM'),
+    primary key (id)
+) engine=InnoDB;
+
+create table category_fine_totals (
+    outstanding_fines float(53) not null,
+    category varchar(255) not null,
+    primary key (category)
+) engine=InnoDB;
+
+create table fine_accrual_checkpoint (
+    completed bit not null,
+    last_due_date date,
+    run_date date,
+    last_record_id binary(16),
+    name varchar(255) not null,
+    primary key (name)
+) engine=InnoDB;
+
+create table fine_policy (
+    fine_per_day float(53) not null,
+    id bigint not null auto_increment,
+    category varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table holds (
+    created_at datetime(6),
+    expires_at datetime(6),
+    ready_at datetime(6),
+    book_id binary(16) not null,
+    borrower_id binary(16) not null,
+    id binary(16) not null,
+    status enum ('CANCELLED','EXPIRED','FULFILLED','READY','WAITING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_events (
+    occurred_at datetime(6) not null,
+    id binary(16) not null,
+    event_key varchar(64) not null,
+    payload longtext not null,
+    type enum ('BOOK_BORROWED','BOOK_CREATED','BOOK_DELETED','BOOK_RETURNED','BOOK_UPDATED','FINE_ACCRUED','FINE_SETTLED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_books_deleted_category_available_title
+   on books (deleted, category, is_available, title);
+
+create index idx_books_deleted_available_title
+   on books (deleted, is_available, title);
+
+create index idx_books_deleted_title
+   on books (deleted, title);
+
+create index idx_books_deleted_category_available_author
+   on books (deleted, category, is_available, author);
+
+create index idx_books_deleted_available_author
+   on books (deleted, is_available, author);
+
+create index idx_books_deleted_author
+   on books (deleted, author);
+
+create index idx_books_isbn
+   on books (isbn);
+
+create index idx_borrow_records_borrower_borrow_date
+   on borrow_records (borrower_id, borrow_date, id);
+
+create index idx_borrow_records_borrower_book_open
+   on borrow_records (borrower_id, book_id, return_date);
+
+create index idx_borrow_records_return_due
+   on borrow_records (return_date, due_date, id);
+
+create index idx_borrow_records_borrower_open_due
+   on borrow_records (borrower_id, return_date, due_date, id);
+
+create index idx_borrow_records_book_open_due
+   on borrow_records (book_id, return_date, due_date, id);
+
+create index idx_borrow_records_outstanding_fine
+   on borrow_records (outstanding_fine);
+
+create index idx_borrow_records_borrow_date
+   on borrow_records (borrow_date);
+
+create index idx_borrowers_outstanding_fines
+   on borrowers (outstanding_fines);
+
+alter table borrowers
+   add constraint UKht682rer8p1t67vs9f0ocm8cs unique (email);
+
+create index idx_holds_book_status_id
+   on holds (book_id, status, id);
+
+create index idx_holds_borrower_book_status
+   on holds (borrower_id, book_id, status);
+
+create index idx_holds_status_expires_at
+   on holds (status, expires_at);
+
+alter table borrow_records
+   add constraint FK9ep13xg9kn8vo3w0ntvd08tco
+   foreign key (book_id)
+   references books (id);
+
+alter table borrow_records
+   add constraint FKkhjx1187werobciy2jkn0eqy8
+   foreign key (borrower_id)
+   references borrowers (id);
+
+alter table holds
+   add constraint FK321kkcta1yomy1hfrjyaa24hc
+   foreign key (book_id)
+   references books (id);
+
+alter table holds
+   add constraint FKn80tu051d0np7hu7xnrpyljra
+   foreign key (borrower_id)
+   references borrowers (id);
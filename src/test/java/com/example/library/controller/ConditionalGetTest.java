@@ -0,0 +1,67 @@
+package com.example.library.controller;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.MembershipType;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag'd endpoints serve several encodings under one ETag, so both the 200 and the 304 must carry Vary
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    private static final String VARY = "Accept, Accept-Encoding";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+
+    @Test
+    void bookVariesByEncoding() throws Exception {
+        BookRequest book = new BookRequest();
+        book.setTitle("Conditional " + UUID.randomUUID());
+        book.setAuthor("Tagger");
+        book.setCategory("Conditional");
+        book.setTotalCopies(1);
+        expectVary("/api/v1/books/" + bookService.addOrUpdate(book).getId());
+    }
+
+    @Test
+    void historyVariesByEncoding() throws Exception {
+        BorrowerRequest borrower = new BorrowerRequest();
+        borrower.setName("Conditional reader");
+        borrower.setEmail("conditional-" + UUID.randomUUID() + "@example.com");
+        borrower.setMembershipType(MembershipType.PREMIUM);
+        expectVary("/borrowers/" + borrowerService.register(borrower).getId() + "/records");
+    }
+
+    private void expectVary(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, VARY))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, VARY));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.library.controller;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.BorrowRecord;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.BorrowRecordRepository;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowService;
+import com.example.library.service.BorrowerService;
+import com.example.library.service.LookupCaches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exact SQL statement count of every listing endpoint, read from the X-SQL-Statements header.
+ * Each page spans several books and borrowers, so a per-row association load (N+1) changes the count.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingStatementCountTest {
+
+    private static final int BOOKS = 4;
+    private static final int BORROWERS = 3;
+    private static final String LIST = "$.data";
+    private static final String PAGE = "$.data.content";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+    @Autowired
+    private BorrowService borrowService;
+    @Autowired
+    private BorrowRecordRepository recordRepository;
+    @Autowired
+    private LookupCaches caches;
+
+    private String category;
+    private String author;
+    private final List<UUID> borrowerIds = new ArrayList<>();
+
+    // Every borrower holds a copy of every book; the first borrower's loans are overdue
+    @BeforeEach
+    void seed() {
+        category = "Count-" + UUID.randomUUID();
+        author = "Counter" + UUID.randomUUID().toString().replace("-", "");
+        List<UUID> bookIds = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            BookRequest book = new BookRequest();
+            book.setTitle("Counted " + i + " " + UUID.randomUUID());
+            book.setAuthor(author);
+            book.setCategory(category);
+            book.setTotalCopies(BORROWERS);
+            bookIds.add(bookService.addOrUpdate(book).getId());
+        }
+        borrowerIds.clear();
+        for (int i = 0; i < BORROWERS; i++) {
+            BorrowerRequest borrower = new BorrowerRequest();
+            borrower.setName("Counted " + i);
+            borrower.setEmail("count-" + UUID.randomUUID() + "@example.com");
+            borrower.setMembershipType(MembershipType.PREMIUM);
+            UUID borrowerId = borrowerService.register(borrower).getId();
+            borrowerIds.add(borrowerId);
+            for (UUID bookId : bookIds) borrowService.borrowBook(borrowerId, bookId);
+        }
+
+        List<BorrowRecord> overdue = recordRepository.findAll().stream()
+                .filter(r -> r.getBorrower().getId().equals(borrowerIds.get(0)))
+                .toList();
+        overdue.forEach(r -> r.setDueDate(LocalDate.now().minusDays(3)));
+        recordRepository.saveAll(overdue);
+    }
+
+    @Test
+    void bookPageIsOneSelectAndOneCount() throws Exception {
+        assertThat(statements(get("/api/v1/books").param("category", category).param("size", "3"), PAGE, 3))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void bookCursorPageIsOneSelect() throws Exception {
+        assertThat(statements(get("/api/v1/books").param("category", category).param("cursor", "").param("size", "3"),
+                PAGE, 3)).isEqualTo(1);
+    }
+
+    @Test
+    void bookSearchIsOneSelect() throws Exception {
+        assertThat(statements(get("/api/v1/books/search").param("q", author), LIST, BOOKS)).isEqualTo(1);
+    }
+
+    @Test
+    void activeRecordsPageIsOneSelect() throws Exception {
+        assertThat(statements(get("/borrow/records/active").param("category", category), PAGE, BOOKS * BORROWERS))
+                .isEqualTo(1);
+        assertThat(statements(get("/borrow/records/active").param("borrowerId", borrowerIds.get(1).toString()),
+                PAGE, BOOKS)).isEqualTo(1);
+    }
+
+    @Test
+    void overduePageIsOneSelect() throws Exception {
+        assertThat(statements(get("/borrowers/overdue").param("category", category), PAGE, BOOKS)).isEqualTo(1);
+    }
+
+    @Test
+    void historyIsOneVersionLookupAndOneSelect() throws Exception {
+        String history = "/borrowers/" + borrowerIds.get(1) + "/records";
+        assertThat(statements(get(history), LIST, BOOKS)).isEqualTo(2);
+        assertThat(statements(get(history).param("cursor", "").param("size", "3"), PAGE, 3)).isEqualTo(2);
+    }
+
+    // Caches are emptied first so the count covers the database work of a cold request
+    private int statements(MockHttpServletRequestBuilder request, String rows, int expectedRows) throws Exception {
+        caches.clear();
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(rows, hasSize(expectedRows)))
+                .andReturn();
+        return Integer.parseInt(result.getResponse().getHeader("X-SQL-Statements"));
+    }
+}
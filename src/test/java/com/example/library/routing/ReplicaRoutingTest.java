@@ -0,0 +1,160 @@
+package com.example.library.routing;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.dto.BorrowerResponse;
+import com.example.library.entity.MembershipType;
+import com.example.library.service.BookService;
+import com.example.library.service.BorrowerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing on two embedded H2 databases, the second standing in for a replica.
+ * There is no replication between them: the replica only changes when the test copies the primary over, so every
+ * read that sees a write before the next copy must have been routed to the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "library.datasource.replica.username=sa",
+        "library.datasource.replica.password=",
+        "library.datasource.replica.driver-class-name=org.h2.Driver",
+        "library.datasource.replica.max-lag=" + ReplicaRoutingTest.MAX_LAG_MS + "ms"})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final long MAX_LAG_MS = 1000;
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+    @Autowired
+    private MeterRegistry registry;
+    @LocalServerPort
+    private int port;
+
+    // Startup already reads through the replica (fine policies, search index), so it needs the schema first
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry properties) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM 'classpath:db/schema-mysql.sql'");
+        }
+        properties.add("library.datasource.replica.url", () -> REPLICA_URL);
+    }
+
+    @Test
+    void readsGoToTheReplicaExceptRightAfterTheClientsOwnWrite() throws Exception {
+        BookRequest title = new BookRequest();
+        title.setTitle("Replicated " + UUID.randomUUID());
+        title.setAuthor("Author");
+        title.setCategory("Category");
+        title.setTotalCopies(3);
+        BookResponse book = bookService.addOrUpdate(title);
+        BorrowerRequest patron = new BorrowerRequest();
+        patron.setName("Patron");
+        patron.setEmail("patron-" + UUID.randomUUID() + "@example.com");
+        patron.setMembershipType(MembershipType.BASIC);
+        BorrowerResponse borrower = borrowerService.register(patron);
+        replicate();
+
+        // The patron keeps cookies like a browser would; the other client does not
+        HttpClient patronClient = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+        HttpClient otherClient = HttpClient.newHttpClient();
+        String base = "http://localhost:" + port;
+        String history = base + "/borrowers/" + borrower.getId() + "/records?cursor=&size=10";
+
+        Step catalog = send(otherClient, get(base + "/api/v1/books?page=0&size=10"));
+        assertThat(catalog.target()).isEqualTo("replica");
+        assertThat(catalog.body()).contains(book.getTitle());
+
+        Step borrow = send(patronClient, HttpRequest.newBuilder(URI.create(base + "/borrow"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"borrowerId\":\"" + borrower.getId()
+                        + "\",\"bookId\":\"" + book.getId() + "\"}")).build());
+        assertThat(borrow.target()).isEqualTo("primary");
+
+        Step ownHistory = send(patronClient, get(history));
+        assertThat(ownHistory.target()).isEqualTo("primary");
+        assertThat(ownHistory.body()).contains(book.getTitle());
+
+        Step otherHistory = send(otherClient, get(history));
+        assertThat(otherHistory.target()).isEqualTo("replica");
+        assertThat(otherHistory.body()).doesNotContain(book.getTitle());
+
+        // Past max-lag the patron is back on the replica, which has not been copied yet
+        Thread.sleep(MAX_LAG_MS + 200);
+        Step lagged = send(patronClient, get(history));
+        assertThat(lagged.target()).isEqualTo("replica");
+        assertThat(lagged.body()).doesNotContain(book.getTitle());
+
+        replicate();
+        Step replicated = send(patronClient, get(history));
+        assertThat(replicated.target()).isEqualTo("replica");
+        assertThat(replicated.body()).contains(book.getTitle());
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    // Which pools handed out a connection while the request ran
+    private Step send(HttpClient client, HttpRequest request) throws Exception {
+        double primary = connections("primary");
+        double replica = connections("replica");
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        assertThat(body).doesNotContain("\"success\":false");
+        String target = (connections("replica") > replica ? "replica " : "")
+                + (connections("primary") > primary ? "primary" : "");
+        return new Step(target.trim(), body);
+    }
+
+    private double connections(String target) {
+        return registry.get("library.datasource.connections").tag("target", target).counter().count();
+    }
+
+    // Stand-in for replication: replace the replica's contents with a snapshot of the primary
+    private static void replicate() throws Exception {
+        Path script = Files.createTempFile("replica-snapshot", ".sql");
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement()) {
+            statement.execute("SCRIPT TO '" + script + "'");
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private record Step(String target, String body) {
+    }
+}
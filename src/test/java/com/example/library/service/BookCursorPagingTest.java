@@ -0,0 +1,67 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BookResponse;
+import com.example.library.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset pages walk every book exactly once, including books without an author
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookCursorPagingTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    void authorPagesVisitEveryBookOnceWithNullsFirst() {
+        String category = "Paging-" + UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>();
+        for (String author : Arrays.asList("Beta", null, "Alpha", null, "Beta", null, "Gamma")) {
+            ids.add(createBook(category, author));
+        }
+
+        List<BookResponse> walked = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<BookResponse> page = bookService.listByCursor(category, null, cursor, 2, "author");
+            walked.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).extracting(BookResponse::getId).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(walked).extracting(BookResponse::getAuthor)
+                .containsExactly(null, null, null, "Alpha", "Beta", "Beta", "Gamma");
+    }
+
+    @Test
+    void copyCountsAreNotKeysetSortKeys() {
+        assertThatThrownBy(() -> bookService.listByCursor(null, null, "", 10, "availableCopies"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported sort field");
+        assertThatThrownBy(() -> bookService.listByCursor(null, null, "", 10, "totalCopies"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UUID createBook(String category, String author) {
+        BookRequest request = new BookRequest();
+        request.setTitle("Paged " + UUID.randomUUID());
+        request.setAuthor(author);
+        request.setCategory(category);
+        request.setTotalCopies(1);
+        return bookService.addOrUpdate(request).getId();
+    }
+}
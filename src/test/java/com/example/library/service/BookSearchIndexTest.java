@@ -0,0 +1,73 @@
+package com.example.library.service;
+
+import com.example.library.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ranking of the in-memory search index; books are indexed directly, outside any transaction
+ */
+class BookSearchIndexTest {
+
+    private final BookSearchIndex index = new BookSearchIndex(null);
+
+    @Test
+    void isbnBeatsTitleBeatsAuthorAndExactBeatsPrefix() {
+        UUID byAuthor = add("Collected Letters", "Dune Herbert", null);
+        UUID byTitle = add("Dune", "Frank Herbert", null);
+        UUID byPrefix = add("Dunes of Arrakis", "Brian Herbert", null);
+        UUID byIsbn = add("Something Else", "Someone", "978-0441013593");
+
+        assertThat(index.search("dune", 10)).containsExactly(byTitle, byAuthor, byPrefix);
+        assertThat(index.search("978-0441013593", 10)).containsExactly(byIsbn);
+    }
+
+    @Test
+    void everyTermMustMatchWhicheverComesFirst() {
+        List<UUID> common = new ArrayList<>();
+        for (int i = 0; i < 50; i++) common.add(add("Garden Notes " + i, "Gardener", null));
+        UUID both = add("Garden of Rare Orchids", "Gardener", null);
+        add("Rare Coins", "Collector", null);
+
+        assertThat(index.search("garden orchids", 10)).containsExactly(both);
+        assertThat(index.search("orchids garden", 10)).containsExactly(both);
+        assertThat(index.search("garden", 100)).containsAll(common).contains(both).hasSize(51);
+    }
+
+    // More completions than the expansion cap: the ones found in the most books are kept, not the first in order
+    @Test
+    void prefixKeepsTheMostCommonCompletions() {
+        for (int i = 0; i < 300; i++) add(String.format("qx%03d", i), "Filler", null);
+        List<UUID> popular = new ArrayList<>();
+        for (int i = 0; i < 5; i++) popular.add(add("qxpopular volume " + i, "Filler", null));
+
+        assertThat(index.search("qx", 1000)).containsAll(popular);
+    }
+
+    // Thousands of author matches do not push out the few stronger title matches
+    @Test
+    void commonTermStillRanksStrongestMatchesFirst() {
+        for (int i = 0; i < 15_000; i++) add("Volume " + i, "Common", null);
+        List<UUID> titled = List.of(add("Common Ground", "Other", null), add("Common Sense", "Other", null),
+                add("Common Law", "Other", null));
+
+        assertThat(index.search("common", 3)).containsExactlyInAnyOrderElementsOf(titled);
+    }
+
+    private UUID add(String title, String author, String isbn) {
+        Book book = Book.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .author(author)
+                .category("Search")
+                .isbn(isbn)
+                .build();
+        index.indexAfterCommit(book);
+        return book.getId();
+    }
+}
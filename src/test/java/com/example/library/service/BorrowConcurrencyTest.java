@@ -0,0 +1,193 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.Book;
+import com.example.library.entity.Borrower;
+import com.example.library.entity.MembershipType;
+import com.example.library.repository.BookRepository;
+import com.example.library.repository.BorrowRecordRepository;
+import com.example.library.repository.BorrowerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 clients borrowing one title at once: the conditional copy-count UPDATE must never hand out more copies than exist
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BorrowConcurrencyTest {
+
+    private static final int CLIENTS = 64;
+    // A refused client backs off exponentially up to this long before trying again
+    private static final long MAX_BACKOFF_MILLIS = 16;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+    @Autowired
+    private BorrowService borrowService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BorrowRecordRepository recordRepository;
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Test
+    void simultaneousBorrowsNeverOversell() throws Exception {
+        int copies = 20;
+        UUID bookId = createBook(copies);
+        List<UUID> borrowers = createBorrowers(CLIENTS);
+
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        runConcurrently(client -> {
+            try {
+                borrowService.borrowBook(borrowers.get(client), bookId);
+                borrowed.incrementAndGet();
+            } catch (IllegalStateException outOfStock) {
+                refused.incrementAndGet();
+            }
+        });
+
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertThat(book.getAvailableCopies()).isZero();
+        assertThat(book.isAvailable()).isFalse();
+        assertThat(borrowed.get()).isEqualTo(copies);
+        assertThat(refused.get()).isEqualTo(CLIENTS - copies);
+        assertThat(openLoans(bookId)).isEqualTo(copies);
+        assertCountersMatchRecords(book, borrowers);
+    }
+
+    @Test
+    void sustainedBorrowReturnKeepsCopiesConsistent() throws Exception {
+        int copies = 32;
+        long durationNanos = TimeUnit.SECONDS.toNanos(3);
+        UUID bookId = createBook(copies);
+        List<UUID> borrowers = createBorrowers(CLIENTS);
+
+        // Counted after a borrow commits and before its return starts, so it never exceeds the real open loans
+        AtomicInteger holding = new AtomicInteger();
+        AtomicInteger maxHolding = new AtomicInteger();
+        AtomicLong borrows = new AtomicLong();
+        long start = System.nanoTime();
+        runConcurrently(client -> {
+            UUID borrowerId = borrowers.get(client);
+            long backoff = 1;
+            while (System.nanoTime() - start < durationNanos) {
+                try {
+                    borrowService.borrowBook(borrowerId, bookId);
+                } catch (IllegalStateException outOfStock) {
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                    continue;
+                }
+                backoff = 1;
+                borrows.incrementAndGet();
+                maxHolding.accumulateAndGet(holding.incrementAndGet(), Math::max);
+                holding.decrementAndGet();
+                borrowService.returnBook(borrowerId, bookId);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertThat(maxHolding.get()).isLessThanOrEqualTo(copies);
+        assertThat(book.getAvailableCopies()).isEqualTo(copies);
+        assertThat(openLoans(bookId)).isZero();
+        assertThat(loans(bookId)).isEqualTo(borrows.get());
+        assertCountersMatchRecords(book, borrowers);
+        System.out.printf("%d clients on one title with %d copies: %d borrows in %.1f s (%.0f borrows/s)%n",
+                CLIENTS, copies, borrows.get(), seconds, borrows.get() / seconds);
+    }
+
+    private void runConcurrently(Client client) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    client.run(index);
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> future : futures) future.get(2, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private UUID createBook(int copies) {
+        BookRequest request = new BookRequest();
+        request.setTitle("Contended " + UUID.randomUUID());
+        request.setAuthor("Stress");
+        request.setCategory("Stress");
+        request.setTotalCopies(copies);
+        return bookService.addOrUpdate(request).getId();
+    }
+
+    private List<UUID> createBorrowers(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BorrowerRequest request = new BorrowerRequest();
+            request.setName("Client " + i);
+            request.setEmail("client-" + UUID.randomUUID() + "@example.com");
+            request.setMembershipType(MembershipType.PREMIUM);
+            ids.add(borrowerService.register(request).getId());
+        }
+        return ids;
+    }
+
+    // The maintained counters agree with the borrow records: copies on the shelf plus copies out make up the title,
+    // and every borrower's active-loan counter equals their open records
+    private void assertCountersMatchRecords(Book book, List<UUID> borrowers) {
+        assertThat(book.getAvailableCopies() + openLoans(book.getId())).isEqualTo(book.getTotalCopies());
+        Map<UUID, Long> open = recordRepository.findAll().stream()
+                .filter(r -> r.getBook().getId().equals(book.getId()) && r.getReturnDate() == null)
+                .collect(Collectors.groupingBy(r -> r.getBorrower().getId(), Collectors.counting()));
+        Map<UUID, Long> active = borrowerRepository.findAllById(borrowers).stream()
+                .collect(Collectors.toMap(Borrower::getId, b -> (long) b.getActiveLoans()));
+        for (UUID borrowerId : borrowers) {
+            assertThat(active.get(borrowerId)).as("active loans of %s", borrowerId)
+                    .isEqualTo(open.getOrDefault(borrowerId, 0L));
+        }
+    }
+
+    private long openLoans(UUID bookId) {
+        return recordRepository.findAll().stream()
+                .filter(r -> r.getBook().getId().equals(bookId) && r.getReturnDate() == null)
+                .count();
+    }
+
+    private long loans(UUID bookId) {
+        return recordRepository.findAll().stream().filter(r -> r.getBook().getId().equals(bookId)).count();
+    }
+
+    @FunctionalInterface
+    private interface Client {
+        void run(int index) throws Exception;
+    }
+}
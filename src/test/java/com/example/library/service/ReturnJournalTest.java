@@ -0,0 +1,100 @@
+package com.example.library.service;
+
+import com.example.library.dto.BatchItemResponse;
+import com.example.library.dto.BookRequest;
+import com.example.library.dto.BorrowerRequest;
+import com.example.library.entity.JournalEventType;
+import com.example.library.entity.MembershipType;
+import com.example.library.entity.OutboxEvent;
+import com.example.library.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every return is journaled: the conditional UPDATE that closes a record must not discard outbox events
+ * still waiting to be flushed
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReturnJournalTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BorrowerService borrowerService;
+    @Autowired
+    private BorrowService borrowService;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void batchReturnWritesOneEventPerReturnedItem() {
+        UUID borrowerId = createBorrower();
+        List<UUID> bookIds = List.of(createBook(), createBook(), createBook());
+        List<BatchItemResponse> borrowed = borrowService.borrowBooks(borrowerId, bookIds);
+        assertThat(borrowed).allMatch(BatchItemResponse::isSuccess);
+
+        List<BatchItemResponse> returned = borrowService.returnBooks(borrowerId, bookIds);
+
+        assertThat(returned).allMatch(BatchItemResponse::isSuccess);
+        Set<String> recordKeys = returned.stream()
+                .map(item -> JournalEventType.BOOK_RETURNED.keyFor(item.getRecord().getId()))
+                .collect(Collectors.toSet());
+        assertThat(events(JournalEventType.BOOK_RETURNED, recordKeys)).hasSize(bookIds.size());
+    }
+
+    // A borrow and a return in one transaction: the borrow's insert and event are still pending at the return
+    @Test
+    void returnKeepsPendingWritesOfTheSameTransaction() {
+        UUID borrowerId = createBorrower();
+        UUID bookId = createBook();
+
+        UUID recordId = new TransactionTemplate(transactionManager).execute(status -> {
+            UUID id = borrowService.borrowBook(borrowerId, bookId).getId();
+            borrowService.returnBook(borrowerId, bookId);
+            return id;
+        });
+
+        assertThat(events(JournalEventType.BOOK_BORROWED, Set.of(JournalEventType.BOOK_BORROWED.keyFor(recordId))))
+                .hasSize(1);
+        assertThat(events(JournalEventType.BOOK_RETURNED, Set.of(JournalEventType.BOOK_RETURNED.keyFor(recordId))))
+                .hasSize(1);
+    }
+
+    private List<OutboxEvent> events(JournalEventType type, Set<String> keys) {
+        return outboxRepository.findAll().stream()
+                .filter(e -> e.getType() == type && keys.contains(e.getKey()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private UUID createBook() {
+        BookRequest request = new BookRequest();
+        request.setTitle("Journaled " + UUID.randomUUID());
+        request.setAuthor("Journal");
+        request.setCategory("Journal");
+        request.setTotalCopies(1);
+        return bookService.addOrUpdate(request).getId();
+    }
+
+    private UUID createBorrower() {
+        BorrowerRequest request = new BorrowerRequest();
+        request.setName("Journal reader");
+        request.setEmail("journal-" + UUID.randomUUID() + "@example.com");
+        request.setMembershipType(MembershipType.PREMIUM);
+        return borrowerService.register(request).getId();
+    }
+}